@@ -0,0 +1,31 @@
+package com.jobscraper.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Фикстуры из {@code src/jmh/resources/fixtures}: ответ Getro {@code /search/jobs} (50 вакансий) и страница вакансии.
+ * Записанные с живых сайтов ({@code fixtures/recorded}, см. {@code FixtureRecorder} в нагрузочном стенде)
+ * берутся вместо синтетических той же структуры, если они есть.
+ */
+final class Fixtures {
+
+    static final String SEARCH_JOBS_PAGE = "search-jobs-page.json";
+    static final String JOB_PAGE = "job-page.html";
+
+    private Fixtures() {
+    }
+
+    static byte[] load(String name) {
+        InputStream recorded = Fixtures.class.getResourceAsStream("/fixtures/recorded/" + name);
+        try (InputStream in = recorded != null ? recorded : Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Фикстура не найдена: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.jobscraper.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.controller.ApiResponse;
+import com.jobscraper.services.JobDataService;
+import com.jobscraper.services.JobMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Мелкие строковые помощники, которые вызываются на каждую вакансию.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FormattingBenchmark {
+
+    @Param({"series_a", "pre_seed_and_angel", "growth"})
+    public String stage;
+
+    private ApiResponse.Job job;
+
+    @Setup
+    public void setUp() throws IOException {
+        ApiResponse response = new ObjectMapper()
+                .readValue(Fixtures.load(Fixtures.SEARCH_JOBS_PAGE), ApiResponse.class);
+        job = response.getResults().getJobs().get(0);
+    }
+
+    @Benchmark
+    public String formatTag() {
+        return JobDataService.formatTag(stage);
+    }
+
+    @Benchmark
+    public List<String> tags() {
+        return JobMapper.tags("Software Engineering", job);
+    }
+
+    @Benchmark
+    public String formatDuration() {
+        return JobDataService.formatDuration(3_723_456L);
+    }
+}
@@ -0,0 +1,47 @@
+package com.jobscraper.benchmarks;
+
+import com.jobscraper.services.DomJobPageExtractor;
+import com.jobscraper.services.JobPageDetails;
+import com.jobscraper.services.JobPageExtractor;
+import com.jobscraper.services.StreamingJobPageExtractor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Извлечение функции и описания со страницы вакансии: Jsoup DOM против потокового сканера.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JobPageExtractBenchmark {
+
+    private static final String URL = "https://jobs.techstars.com/companies/acme/jobs/job-0";
+
+    private byte[] html;
+    private JobPageExtractor dom;
+    private JobPageExtractor streaming;
+
+    @Setup
+    public void setUp() {
+        html = Fixtures.load(Fixtures.JOB_PAGE);
+        dom = new DomJobPageExtractor();
+        streaming = new StreamingJobPageExtractor();
+        if (!dom.extract(html, URL).equals(streaming.extract(html, URL))) {
+            throw new IllegalStateException("Экстракторы расходятся на фикстуре " + Fixtures.JOB_PAGE);
+        }
+    }
+
+    @Benchmark
+    public JobPageDetails dom() {
+        return dom.extract(html, URL);
+    }
+
+    @Benchmark
+    public JobPageDetails streaming() {
+        return streaming.extract(html, URL);
+    }
+}
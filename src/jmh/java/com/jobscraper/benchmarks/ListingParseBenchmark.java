@@ -0,0 +1,63 @@
+package com.jobscraper.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.controller.ApiResponse;
+import com.jobscraper.services.JobStreamReader;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор одной страницы {@code /search/jobs} (50 вакансий): прежний org.json через String,
+ * Jackson databind в {@link ApiResponse} целиком и потоковый {@link JobStreamReader}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ListingParseBenchmark {
+
+    private byte[] page;
+    private ObjectMapper objectMapper;
+    private JobStreamReader reader;
+
+    @Setup
+    public void setUp() {
+        page = Fixtures.load(Fixtures.SEARCH_JOBS_PAGE);
+        objectMapper = new ObjectMapper();
+        reader = new JobStreamReader(objectMapper);
+    }
+
+    @Benchmark
+    public void orgJson(Blackhole bh) {
+        JSONObject root = new JSONObject(new String(page, StandardCharsets.UTF_8));
+        JSONObject results = root.getJSONObject("results");
+        JSONArray jobs = results.getJSONArray("jobs");
+        for (int i = 0; i < jobs.length(); i++) {
+            bh.consume(jobs.getJSONObject(i));
+        }
+        bh.consume(results.optInt("count"));
+    }
+
+    @Benchmark
+    public void jacksonDatabind(Blackhole bh) throws IOException {
+        ApiResponse response = objectMapper.readValue(page, ApiResponse.class);
+        for (ApiResponse.Job job : response.getResults().getJobs()) {
+            bh.consume(job);
+        }
+        bh.consume(response.getResults().getCount());
+    }
+
+    @Benchmark
+    public int jacksonStream(Blackhole bh) throws IOException {
+        return reader.read(new ByteArrayInputStream(page), bh::consume);
+    }
+}
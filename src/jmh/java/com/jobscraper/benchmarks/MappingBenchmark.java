@@ -0,0 +1,91 @@
+package com.jobscraper.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.controller.ApiResponse;
+import com.jobscraper.entity.Item;
+import com.jobscraper.entity.ListPage;
+import com.jobscraper.entity.Organization;
+import com.jobscraper.entity.Tag;
+import com.jobscraper.services.JobMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг DTO страницы (50 вакансий) в {@link Item} и {@link ListPage} так же, как это делает
+ * {@code JobDataService.parseJob}, вместе с хэшем содержимого для инкрементального режима.
+ * Организации и теги интернируются через map, как в {@code DictionaryCache}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private List<ApiResponse.Job> jobs;
+    private final Map<Long, Organization> organizations = new ConcurrentHashMap<>();
+    private final Map<String, Tag> tags = new ConcurrentHashMap<>();
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        jobs = objectMapper.readValue(Fixtures.load(Fixtures.SEARCH_JOBS_PAGE), ApiResponse.class)
+                .getResults().getJobs();
+    }
+
+    private Organization organization(ApiResponse.Organization dto) {
+        return dto == null ? null : organizations.computeIfAbsent(dto.getId(), id -> {
+            Organization org = new Organization();
+            org.setId(id);
+            org.setName(dto.getName());
+            return org;
+        });
+    }
+
+    private Tag tag(String name) {
+        return tags.computeIfAbsent(name, value -> {
+            Tag tag = new Tag();
+            tag.setName(value);
+            return tag;
+        });
+    }
+
+    @Benchmark
+    public void mapPage(Blackhole bh) {
+        for (ApiResponse.Job job : jobs) {
+            String url = JobMapper.jobUrl(job);
+            String contentHash = JobMapper.contentHash(objectMapper, job);
+
+            ListPage listPage = new ListPage();
+            JobMapper.fillListPage(listPage, job, "Software Engineering", 1234, this::tag);
+
+            Item item = new Item();
+            JobMapper.fillItem(item, job, url, contentHash, this::organization, this::tag);
+
+            bh.consume(listPage);
+            bh.consume(item);
+        }
+    }
+
+    @Benchmark
+    public void mapPageWithoutHash(Blackhole bh) {
+        for (ApiResponse.Job job : jobs) {
+            ListPage listPage = new ListPage();
+            JobMapper.fillListPage(listPage, job, "Software Engineering", 1234, this::tag);
+
+            Item item = new Item();
+            JobMapper.fillItem(item, job, JobMapper.jobUrl(job), null, this::organization, this::tag);
+
+            bh.consume(listPage);
+            bh.consume(item);
+        }
+    }
+}
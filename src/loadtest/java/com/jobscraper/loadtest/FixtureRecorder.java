@@ -0,0 +1,82 @@
+package com.jobscraper.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.controller.ApiResponse;
+import com.jobscraper.services.JobMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Записывает живые ответы для бенчмарков и стенда: страницу {@code /search/jobs} API Getro (50 вакансий одной индустрии)
+ * и страницу первой вакансии из неё с jobs.techstars.com. Файлы ложатся в {@code src/jmh/resources/fixtures/recorded},
+ * откуда их берут бенчмарки вместо синтетических, а стенд - через {@code --loadtest.listing-file}
+ * и {@code --loadtest.job-page-file}. Нужен доступ в сеть.
+ *
+ * <pre>
+ * mvn -B -Ploadtest compile exec:exec -Dloadtest.main=com.jobscraper.loadtest.FixtureRecorder \
+ *     -Dloadtest.args="--loadtest.record-industry=Legal"
+ * </pre>
+ */
+public final class FixtureRecorder {
+
+    private static final String JOBS_URL = "https://api.getro.com/api/v2/collections/89/search/jobs";
+    private static final int HITS_PER_PAGE = 50;
+
+    private FixtureRecorder() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        Files.createDirectories(options.recordDir);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("hitsPerPage", HITS_PER_PAGE);
+        body.put("page", 0);
+        body.put("query", "");
+        body.put("filters", Map.of("job_functions", List.of(options.recordIndustry)));
+        byte[] listing = send(client, HttpRequest.newBuilder(URI.create(JOBS_URL))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))));
+        ApiResponse response = objectMapper.readValue(listing, ApiResponse.class);
+        List<ApiResponse.Job> jobs = response.getResults() != null ? response.getResults().getJobs() : null;
+        if (jobs == null || jobs.isEmpty()) {
+            throw new IllegalStateException("В ответе листинга нет вакансий для индустрии " + options.recordIndustry);
+        }
+        Path listingFile = options.recordDir.resolve("search-jobs-page.json");
+        Files.write(listingFile, listing);
+        System.out.println("📦 Листинг: " + listingFile + ", вакансий " + jobs.size() + ", " + listing.length / 1024 + " КБ");
+
+        String url = jobs.stream().map(JobMapper::jobUrl).filter(Objects::nonNull).findFirst()
+                .orElseThrow(() -> new IllegalStateException("Ни у одной вакансии листинга нет адреса страницы"));
+        byte[] page = send(client, HttpRequest.newBuilder(URI.create(url)).header("Accept", "text/html").GET());
+        Path pageFile = options.recordDir.resolve("job-page.html");
+        Files.write(pageFile, page);
+        System.out.println("📦 Страница вакансии: " + pageFile + " (" + url + "), " + page.length / 1024 + " КБ");
+    }
+
+    private static byte[] send(HttpClient client, HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " от " + response.uri());
+        }
+        return response.body();
+    }
+}
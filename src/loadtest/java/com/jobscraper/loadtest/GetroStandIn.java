@@ -0,0 +1,188 @@
+package com.jobscraper.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Локальная подмена {@code api.getro.com} и {@code jobs.techstars.com} на JDK HttpServer.
+ * <ul>
+ *     <li>{@code POST /api/v2/collections/89/search/jobs} - страница листинга по {@code hitsPerPage}, {@code page}
+ *     и {@code filters.job_functions} (без фильтра - вся коллекция);</li>
+ *     <li>{@code GET /companies/{org}/jobs/{slug}} - HTML страницы вакансии с ETag (на If-None-Match отвечает 304).</li>
+ * </ul>
+ * На оба адреса накладываются задержка с разбросом, доля ответов 429 (с Retry-After) / 503
+ * и медленная отдача тела кусками.
+ */
+final class GetroStandIn implements AutoCloseable {
+
+    static final String JOBS_PATH = "/api/v2/collections/89/search/jobs";
+    private static final String JOB_PAGE_PREFIX = "/companies/";
+    private static final int SLOW_BODY_CHUNKS = 8;
+
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper;
+    private final SyntheticPages pages;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final AtomicLong listingRequests = new AtomicLong();
+    private final AtomicLong jobPageRequests = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    // System.nanoTime() первого запроса листинга после reset; 0 - запросов ещё не было
+    private final AtomicLong firstListingNanos = new AtomicLong();
+
+    GetroStandIn(LoadTestOptions options, ObjectMapper objectMapper, SyntheticPages pages) throws IOException {
+        this.options = options;
+        this.objectMapper = objectMapper;
+        this.pages = pages;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", options.port), 1024);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stand-in");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext(JOBS_PATH, this::handleListing);
+        server.createContext(JOB_PAGE_PREFIX, this::handleJobPage);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handleListing(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            firstListingNanos.compareAndSet(0, System.nanoTime());
+            listingRequests.incrementAndGet();
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, null, new byte[0]);
+                return;
+            }
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            if (injectFault(exchange)) return;
+
+            int page = request.path("page").asInt(0);
+            int hitsPerPage = Math.max(1, request.path("hitsPerPage").asInt(10));
+            JsonNode filter = request.path("filters").path("job_functions");
+            byte[] body = filter.isMissingNode()
+                    ? pages.collectionPage(page, hitsPerPage)
+                    : pages.industryPage(filter.path(0).asText(""), page, hitsPerPage);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            send(exchange, 200, exchange.getRequestHeaders().getFirst("Accept-Encoding"), body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handleJobPage(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            jobPageRequests.incrementAndGet();
+            String path = exchange.getRequestURI().getPath();
+            int jobs = path.indexOf("/jobs/");
+            if (!"GET".equals(exchange.getRequestMethod()) || jobs < 0) {
+                send(exchange, 404, null, new byte[0]);
+                return;
+            }
+            if (injectFault(exchange)) return;
+
+            String slug = path.substring(jobs + "/jobs/".length());
+            String etag = "\"" + slug + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            send(exchange, 200, exchange.getRequestHeaders().getFirst("Accept-Encoding"), pages.jobPage(slug));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Задержка ответа и, с вероятностью {@code errorRate}, 429 или 503 вместо него. */
+    private boolean injectFault(HttpExchange exchange) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = options.latencyMs + (options.jitterMs > 0 ? random.nextInt(options.jitterMs + 1) : 0);
+        if (delay > 0) Thread.sleep(delay);
+        if (options.errorRate <= 0 || random.nextDouble() >= options.errorRate) return false;
+
+        injectedErrors.incrementAndGet();
+        if (random.nextBoolean()) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            exchange.sendResponseHeaders(429, -1);
+        } else {
+            exchange.sendResponseHeaders(503, -1);
+        }
+        return true;
+    }
+
+    private void send(HttpExchange exchange, int status, String acceptEncoding, byte[] body)
+            throws IOException, InterruptedException {
+        if (options.gzip && body.length > 0 && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+                out.write(body);
+            }
+            body = gzipped.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        if (body.length == 0) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        bytesSent.addAndGet(body.length);
+        OutputStream out = exchange.getResponseBody();
+        if (options.slowBodyMs <= 0) {
+            out.write(body);
+            return;
+        }
+        int chunk = (body.length + SLOW_BODY_CHUNKS - 1) / SLOW_BODY_CHUNKS;
+        for (int offset = 0; offset < body.length; offset += chunk) {
+            out.write(body, offset, Math.min(chunk, body.length - offset));
+            out.flush();
+            Thread.sleep(options.slowBodyMs / SLOW_BODY_CHUNKS);
+        }
+    }
+
+    /** Время первого запроса листинга ({@link System#nanoTime()}) после {@link #resetFirstListing()}; 0 - запросов не было. */
+    long firstListingNanos() {
+        return firstListingNanos.get();
+    }
+
+    void resetFirstListing() {
+        firstListingNanos.set(0);
+    }
+
+    /** Счётчики подмены с прошлого вызова: запросы листинга, страниц, 304, внедрённые ошибки, байты. */
+    String drainCounters() {
+        return String.format("листинг %d, страницы %d (304: %d), ошибок внедрено %d, отдано %d КБ",
+                listingRequests.getAndSet(0), jobPageRequests.getAndSet(0), notModified.getAndSet(0),
+                injectedErrors.getAndSet(0), bytesSent.getAndSet(0) / 1024);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,180 @@
+package com.jobscraper.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.JobScraperApplication;
+import com.jobscraper.entity.Statistics;
+import com.jobscraper.services.JobDataService;
+import com.jobscraper.services.JobEnrichment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Офлайн-прогон скрапера целиком: подмена Getro API и страниц вакансий ({@link GetroStandIn}),
+ * встроенный PostgreSQL (или внешний, {@code --loadtest.db=external}) и обычный контекст Spring.
+ * После каждого прогона печатает вакансии/сек, p50/p99 времени вакансии в конвейере,
+ * пик потоков, heap и RSS.
+ * С {@code --loadtest.nodes=N} поднимает N контекстов с общей подменой и БД и запускает распределённый прогон
+ * на всех сразу; статистику прогона печатает узел-координатор, перцентили - по первому узлу.
+ *
+ * <pre>
+ * mvn -B -Ploadtest compile exec:exec -Dloadtest.args="--loadtest.jobs-per-industry=1000 --loadtest.error-rate=0.02"
+ * </pre>
+ */
+public final class LoadTestHarness {
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> industries = new ArrayList<>();
+        for (int i = 1; i <= options.industries; i++) {
+            industries.add(String.format("Industry %02d", i));
+        }
+        SyntheticPages pages = new SyntheticPages(objectMapper, industries, options);
+
+        EmbeddedPostgres postgres = options.embeddedDb ? EmbeddedPostgres.start() : null;
+        try (GetroStandIn standIn = new GetroStandIn(options, objectMapper, pages)) {
+            standIn.start();
+            System.out.println("🧪 Подмена Getro API: " + standIn.baseUrl());
+
+            List<String> springArgs = new ArrayList<>(options.springArgs);
+            addDefault(options, springArgs, "scraper.api.jobs-url", standIn.baseUrl() + GetroStandIn.JOBS_PATH);
+            addDefault(options, springArgs, "scraper.jobs-base-url", standIn.baseUrl());
+            addDefault(options, springArgs, "scraper.industries", String.join(",", industries));
+            addDefault(options, springArgs, "scraper.schedule.enabled", "false");
+            addDefault(options, springArgs, "server.port", "0");
+            if (options.nodes > 1) {
+                addDefault(options, springArgs, "scraper.distributed.enabled", "true");
+            }
+            if (postgres != null) {
+                addDefault(options, springArgs, "spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+                addDefault(options, springArgs, "spring.datasource.username", "postgres");
+                addDefault(options, springArgs, "spring.datasource.password", "postgres");
+            }
+
+            List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+            try {
+                for (int node = 0; node < options.nodes; node++) {
+                    List<String> nodeArgs = new ArrayList<>(springArgs);
+                    // у каждого узла свой кэш страниц вакансий, как у отдельного процесса
+                    addDefault(options, nodeArgs, "scraper.cache.dir", Files.createTempDirectory("job-scraper-loadtest").toString());
+                    contexts.add(SpringApplication.run(JobScraperApplication.class, nodeArgs.toArray(String[]::new)));
+                }
+                ConfigurableApplicationContext context = contexts.get(0);
+                Timer jobDuration = context.getBean(MeterRegistry.class).get("scraper.job.duration").timer();
+                for (int run = 1; run <= options.runs; run++) {
+                    HistogramSnapshot before = jobDuration.takeSnapshot();
+                    Statistics stats = runNodes(contexts, options.withDescription);
+                    HistogramSnapshot after = jobDuration.takeSnapshot();
+                    // фоновая дозагрузка страниц вакансий идёт после записи листинга; ждём её, чтобы прогоны не перекрывались
+                    JobEnrichment.Pass enrichment = context.getBean(JobEnrichment.class).await(Duration.ofHours(1));
+                    report(run, stats, before, after, enrichment, standIn.drainCounters());
+                }
+                if (options.holdSeconds > 0) {
+                    // приложение продолжает отвечать (/jobs, /actuator), пока стенд не закроется
+                    System.out.println("🧪 Приложение: http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port")
+                            + ", ожидание " + options.holdSeconds + " с");
+                    Thread.sleep(options.holdSeconds * 1000L);
+                }
+            } finally {
+                for (ConfigurableApplicationContext context : contexts) {
+                    context.getBean(JobDataService.class).shutdownExecutors();
+                    context.close();
+                }
+            }
+        } finally {
+            if (postgres != null) postgres.close();
+        }
+    }
+
+    /** Прогон на всех узлах одновременно; возвращает статистику координатора (null, если прогон пропущен). */
+    private static Statistics runNodes(List<ConfigurableApplicationContext> contexts, boolean withDescription) throws Exception {
+        if (contexts.size() == 1) {
+            return contexts.get(0).getBean(JobDataService.class).fetchAndSaveAllListPages(withDescription);
+        }
+        ExecutorService nodes = Executors.newFixedThreadPool(contexts.size());
+        try {
+            List<Future<Statistics>> results = new ArrayList<>();
+            for (ConfigurableApplicationContext context : contexts) {
+                JobDataService service = context.getBean(JobDataService.class);
+                results.add(nodes.submit(() -> service.fetchAndSaveAllListPages(withDescription)));
+            }
+            Statistics coordinator = null;
+            for (Future<Statistics> result : results) {
+                Statistics stats = result.get();
+                if (stats != null) coordinator = stats;
+            }
+            return coordinator;
+        } finally {
+            nodes.shutdown();
+        }
+    }
+
+    /** Аргумент Spring по умолчанию; заданный явно в командной строке не перекрывается. */
+    private static void addDefault(LoadTestOptions options, List<String> springArgs, String name, String value) {
+        if (!options.hasSpringArg(name)) {
+            springArgs.add("--" + name + "=" + value);
+        }
+    }
+
+    private static void report(int run, Statistics stats, HistogramSnapshot before, HistogramSnapshot after,
+                               JobEnrichment.Pass enrichment, String standInCounters) {
+        if (stats == null) {
+            System.out.println("🧪 Прогон " + run + " пропущен: идёт прогон другого процесса");
+            return;
+        }
+        double seconds = Math.max(stats.getTotalTimeMs(), 1) / 1000.0;
+        System.out.printf("🧪 Прогон %d: %d вакансий за %.1f с, %.1f вакансий/сек, p50 %.0f мс, p99 %.0f мс, "
+                        + "пик потоков %d (несущих %d), виртуальных %d, пик heap %d МБ, пик RSS %d МБ "
+                        + "(добавлено %d, обновлено %d, без изменений %d)%n",
+                run, stats.getTotalJobsParsed(), seconds, stats.getTotalJobsParsed() / seconds,
+                percentile(before, after, 0.50), percentile(before, after, 0.99),
+                stats.getPeakThreads(), stats.getPeakCarrierThreads(), stats.getPeakVirtualThreads(), stats.getPeakHeapKb() / 1024, stats.getPeakRssKb() / 1024,
+                stats.getJobsAdded(), stats.getJobsUpdated(), stats.getJobsUnchanged());
+        if (stats.getNodes() != null) {
+            System.out.println("🧪 Узлов в прогоне: " + stats.getNodes());
+        }
+        if (enrichment != null) {
+            System.out.printf("🧪 Дозагрузка: %d страниц вакансий за %.1f с (недоступно %d, ошибок %d, отложено %d)%n",
+                    enrichment.enriched(), enrichment.durationMs() / 1000.0, enrichment.unavailable(), enrichment.failed(),
+                    enrichment.skipped());
+        }
+        System.out.println("🧪 Подмена: " + standInCounters);
+    }
+
+    /**
+     * Перцентиль времени вакансии за прогон по разнице гистограмм таймера до и после прогона.
+     * Точность - граница бакета (Micrometer делит диапазон примерно на 10% шаги).
+     */
+    static double percentile(HistogramSnapshot before, HistogramSnapshot after, double p) {
+        CountAtBucket[] from = before.histogramCounts();
+        CountAtBucket[] to = after.histogramCounts();
+        long total = after.count() - before.count();
+        if (total <= 0 || to.length == 0 || from.length != to.length) return Double.NaN;
+
+        // Гистограммы таймеров Micrometer кумулятивные: в бакете число значений не больше его границы
+        long rank = (long) Math.ceil(p * total);
+        for (int i = 0; i < to.length; i++) {
+            long seen = (long) (to[i].count() - from[i].count());
+            if (seen >= rank) return to[i].bucket(TimeUnit.MILLISECONDS);
+        }
+        return after.max(TimeUnit.MILLISECONDS);
+    }
+}
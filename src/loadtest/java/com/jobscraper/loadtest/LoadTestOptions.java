@@ -0,0 +1,104 @@
+package com.jobscraper.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры стенда. Аргументы {@code --loadtest.*} читает стенд, остальные уходят в Spring как есть
+ * (например {@code --scraper.execution-mode=VIRTUAL} или {@code --scraper.incremental=false}).
+ */
+final class LoadTestOptions {
+
+    // --- прогон ---
+    int runs = 3;
+    boolean withDescription = true;
+    boolean embeddedDb = true;
+    int holdSeconds = 0;
+    // узлов распределённого прогона в этом процессе (контексты Spring с общей подменой и БД)
+    int nodes = 1;
+
+    // --- время старта (StartupBenchmark) ---
+    List<String> startupVariants = List.of("web", "cli", "cli-aot", "cli-cds");
+    Path startupJar = Path.of("target/job-scraper-0.0.1-SNAPSHOT.jar");
+    Path cdsArchive = Path.of("target/startup/job-scraper-cli.jsa");
+    String childJvmArgs = "-Xmx512m -Dsun.stdout.encoding=UTF-8";
+
+    // --- подмена Getro API и сайта ---
+    int port = 0;
+    int industries = 16;
+    int jobsPerIndustry = 500;
+    double sharedJobs = 0.3;
+    boolean payloadFunctions = true;
+    int latencyMs = 50;
+    int jitterMs = 50;
+    double errorRate = 0.0;
+    int slowBodyMs = 0;
+    boolean gzip = true;
+    Path listingFile;
+    Path jobPageFile;
+
+    // --- запись фикстур (FixtureRecorder) ---
+    String recordIndustry = "Design";
+    Path recordDir = Path.of("src/jmh/resources/fixtures/recorded");
+
+    final List<String> springArgs = new ArrayList<>();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions o = new LoadTestOptions();
+        Map<String, String> own = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--loadtest.")) {
+                int eq = arg.indexOf('=');
+                if (eq < 0) throw new IllegalArgumentException("Ожидалось --loadtest.<имя>=<значение>: " + arg);
+                own.put(arg.substring("--loadtest.".length(), eq), arg.substring(eq + 1));
+            } else {
+                o.springArgs.add(arg);
+            }
+        }
+        own.forEach((key, value) -> {
+            switch (key) {
+                case "runs" -> o.runs = Integer.parseInt(value);
+                case "mode" -> o.withDescription = switch (value) {
+                    case "1" -> true;
+                    case "2" -> false;
+                    default -> throw new IllegalArgumentException("loadtest.mode: 1 или 2");
+                };
+                case "db" -> o.embeddedDb = switch (value) {
+                    case "embedded" -> true;
+                    case "external" -> false;
+                    default -> throw new IllegalArgumentException("loadtest.db: embedded или external");
+                };
+                case "hold-seconds" -> o.holdSeconds = Integer.parseInt(value);
+                case "nodes" -> o.nodes = Math.max(1, Integer.parseInt(value));
+                case "startup-variants" -> o.startupVariants = List.of(value.split(","));
+                case "startup-jar" -> o.startupJar = Path.of(value);
+                case "cds-archive" -> o.cdsArchive = Path.of(value);
+                case "child-jvm-args" -> o.childJvmArgs = value;
+                case "port" -> o.port = Integer.parseInt(value);
+                case "industries" -> o.industries = Integer.parseInt(value);
+                case "jobs-per-industry" -> o.jobsPerIndustry = Integer.parseInt(value);
+                case "shared-jobs" -> o.sharedJobs = Double.parseDouble(value);
+                case "payload-functions" -> o.payloadFunctions = Boolean.parseBoolean(value);
+                case "latency-ms" -> o.latencyMs = Integer.parseInt(value);
+                case "jitter-ms" -> o.jitterMs = Integer.parseInt(value);
+                case "error-rate" -> o.errorRate = Double.parseDouble(value);
+                case "slow-body-ms" -> o.slowBodyMs = Integer.parseInt(value);
+                case "gzip" -> o.gzip = Boolean.parseBoolean(value);
+                case "listing-file" -> o.listingFile = Path.of(value);
+                case "job-page-file" -> o.jobPageFile = Path.of(value);
+                case "record-industry" -> o.recordIndustry = value;
+                case "record-dir" -> o.recordDir = Path.of(value);
+                default -> throw new IllegalArgumentException("Неизвестный параметр --loadtest." + key);
+            }
+        });
+        return o;
+    }
+
+    boolean hasSpringArg(String name) {
+        String prefix = "--" + name + "=";
+        return springArgs.stream().anyMatch(a -> a.startsWith(prefix));
+    }
+}
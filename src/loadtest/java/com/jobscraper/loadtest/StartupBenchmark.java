@@ -0,0 +1,235 @@
+package com.jobscraper.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+/**
+ * Время старта собранного приложения отдельным процессом: от запуска JVM до первого запроса листинга к подмене
+ * ({@link GetroStandIn}) и RSS процесса в этот момент. Варианты:
+ * <ul>
+ *     <li>{@code web} - обычный запуск (веб-сервер, планировщик с прогоном на старте);</li>
+ *     <li>{@code cli} - профиль cli: без веб-сервера, ленивые бины;</li>
+ *     <li>{@code cli-aot} - то же с {@code -Dspring.aot.enabled=true} (jar собран с {@code -Paot});</li>
+ *     <li>{@code cli-cds} - cli-aot с архивом AppCDS; без архива сначала идёт обучающий прогон с {@code -XX:ArchiveClassesAtExit}.</li>
+ * </ul>
+ * Jar распаковывается ({@code -Djarmode=tools extract}) в {@code target/startup/app}: CDS архивирует классы только из jar-ов
+ * и проверяет их даты, поэтому архив сбрасывается, когда jar пересобран. Вывод процессов - в {@code target/startup/*.log}.
+ *
+ * <pre>
+ * mvn -B -Paot package -DskipTests
+ * mvn -B -Ploadtest compile exec:exec -Dloadtest.main=com.jobscraper.loadtest.StartupBenchmark -Dloadtest.args="--loadtest.runs=5"
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private static final Path WORK_DIR = Path.of("target/startup");
+    private static final String AOT_INITIALIZER = "BOOT-INF/classes/com/jobscraper/JobScraperApplication__ApplicationContextInitializer.class";
+    private static final long FIRST_REQUEST_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(2);
+    private static final long RUN_TIMEOUT_MINUTES = 10;
+
+    private record Sample(long firstRequestMs, long rssKb, long peakRssKb, long totalMs, int exitCode) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (!Files.exists(options.startupJar)) {
+            throw new IllegalStateException("Нет " + options.startupJar + ": сначала mvn -B -Paot package -DskipTests");
+        }
+        Files.createDirectories(WORK_DIR);
+        Path app = extract(options);
+        boolean aot = hasAotClasses(options.startupJar);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<String> industries = new ArrayList<>();
+        for (int i = 1; i <= options.industries; i++) {
+            industries.add(String.format("Industry %02d", i));
+        }
+        SyntheticPages pages = new SyntheticPages(objectMapper, industries, options);
+
+        EmbeddedPostgres postgres = options.embeddedDb ? EmbeddedPostgres.start() : null;
+        try (GetroStandIn standIn = new GetroStandIn(options, objectMapper, pages)) {
+            standIn.start();
+            System.out.println("🧪 Подмена Getro API: " + standIn.baseUrl());
+
+            List<String> springArgs = new ArrayList<>(options.springArgs);
+            addDefault(options, springArgs, "scraper.api.jobs-url", standIn.baseUrl() + GetroStandIn.JOBS_PATH);
+            addDefault(options, springArgs, "scraper.jobs-base-url", standIn.baseUrl());
+            addDefault(options, springArgs, "scraper.industries", String.join(",", industries));
+            addDefault(options, springArgs, "scraper.run.with-descriptions", String.valueOf(options.withDescription));
+            addDefault(options, springArgs, "scraper.cache.dir", Files.createTempDirectory("job-scraper-startup").toString());
+            addDefault(options, springArgs, "server.port", "0");
+            if (postgres != null) {
+                addDefault(options, springArgs, "spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+                addDefault(options, springArgs, "spring.datasource.username", "postgres");
+                addDefault(options, springArgs, "spring.datasource.password", "postgres");
+            }
+
+            for (String variant : options.startupVariants) {
+                if (variant.startsWith("cli-") && !aot) {
+                    System.out.println("🧪 " + variant + " пропущен: в " + options.startupJar + " нет классов AOT (mvn -B -Paot package)");
+                    continue;
+                }
+                if (variant.equals("cli-cds") && !Files.exists(options.cdsArchive)) {
+                    train(options, app, springArgs, standIn);
+                }
+                List<Sample> samples = new ArrayList<>();
+                for (int run = 1; run <= options.runs; run++) {
+                    Sample sample = launch(options, app, variant, springArgs, standIn, run);
+                    standIn.drainCounters();
+                    if (sample == null) continue;
+                    samples.add(sample);
+                    System.out.printf("🧪 %s #%d: первый запрос через %d мс, RSS %d МБ (пик %d МБ)%s%n", variant, run,
+                            sample.firstRequestMs(), sample.rssKb() / 1024, sample.peakRssKb() / 1024,
+                            sample.exitCode() < 0 ? "" : String.format(", прогон до выхода %.1f с, код %d",
+                                    sample.totalMs() / 1000.0, sample.exitCode()));
+                }
+                if (!samples.isEmpty()) {
+                    System.out.printf("📊 %s: медиана первого запроса %d мс, RSS %d МБ (пик %d МБ), запусков %d%n", variant,
+                            median(samples.stream().mapToLong(Sample::firstRequestMs).toArray()),
+                            median(samples.stream().mapToLong(Sample::rssKb).toArray()) / 1024,
+                            median(samples.stream().mapToLong(Sample::peakRssKb).toArray()) / 1024, samples.size());
+                }
+            }
+        } finally {
+            if (postgres != null) postgres.close();
+        }
+    }
+
+    /**
+     * Один запуск варианта: ждёт первого запроса листинга и снимает RSS; cli-варианты доводят прогон до выхода,
+     * веб-вариант останавливается сразу (прерванный прогон продолжит следующий запуск).
+     *
+     * @return null, если процесс завершился или завис раньше первого запроса
+     */
+    private static Sample launch(LoadTestOptions options, Path app, String variant, List<String> springArgs,
+                                 GetroStandIn standIn, int run) throws IOException, InterruptedException {
+        List<String> command = command(options, app, variant, springArgs, List.of());
+        Path log = WORK_DIR.resolve(variant + "-" + run + ".log");
+        standIn.resetFirstListing();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            long deadline = System.currentTimeMillis() + FIRST_REQUEST_TIMEOUT_MS;
+            while (standIn.firstListingNanos() == 0) {
+                if (!process.isAlive() || System.currentTimeMillis() > deadline) {
+                    System.err.println("🧪 " + variant + " #" + run + ": нет запроса листинга, см. " + log);
+                    return null;
+                }
+                Thread.sleep(1);
+            }
+            long firstRequestMs = TimeUnit.NANOSECONDS.toMillis(standIn.firstListingNanos() - start);
+            long[] rss = rssKb(process.pid());
+            if (variant.equals("web")) {
+                return new Sample(firstRequestMs, rss[0], rss[1], -1, -1);
+            }
+            if (!process.waitFor(RUN_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                System.err.println("🧪 " + variant + " #" + run + ": прогон не закончился за " + RUN_TIMEOUT_MINUTES + " мин, см. " + log);
+                return new Sample(firstRequestMs, rss[0], rss[1], -1, -1);
+            }
+            return new Sample(firstRequestMs, rss[0], rss[1],
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), process.exitValue());
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+        }
+    }
+
+    /** Обучающий прогон cli-aot: JVM пишет при выходе архив всех загруженных классов. */
+    private static void train(LoadTestOptions options, Path app, List<String> springArgs, GetroStandIn standIn)
+            throws IOException, InterruptedException {
+        System.out.println("🧪 Обучающий прогон для архива AppCDS " + options.cdsArchive);
+        Files.createDirectories(options.cdsArchive.toAbsolutePath().getParent());
+        List<String> command = command(options, app, "cli-aot", springArgs,
+                List.of("-XX:ArchiveClassesAtExit=" + options.cdsArchive));
+        Path log = WORK_DIR.resolve("cds-training.log");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        if (!process.waitFor(RUN_TIMEOUT_MINUTES, TimeUnit.MINUTES) || !Files.exists(options.cdsArchive)) {
+            process.destroyForcibly().waitFor();
+            throw new IllegalStateException("Архив AppCDS не записан, см. " + log);
+        }
+        standIn.drainCounters();
+    }
+
+    private static List<String> command(LoadTestOptions options, Path app, String variant, List<String> springArgs,
+                                        List<String> extraJvmArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (!options.childJvmArgs.isBlank()) command.addAll(Arrays.asList(options.childJvmArgs.trim().split("\\s+")));
+        command.addAll(extraJvmArgs);
+        switch (variant) {
+            case "web", "cli" -> {
+            }
+            case "cli-aot" -> command.add("-Dspring.aot.enabled=true");
+            case "cli-cds" -> {
+                command.add("-Dspring.aot.enabled=true");
+                command.add("-XX:SharedArchiveFile=" + options.cdsArchive);
+            }
+            default -> throw new IllegalArgumentException("loadtest.startup-variants: web, cli, cli-aot, cli-cds");
+        }
+        command.add("-jar");
+        command.add(app.toString());
+        command.add("--spring.profiles.active=" + (variant.equals("web") ? "default" : "cli"));
+        command.addAll(springArgs);
+        return command;
+    }
+
+    /** Распаковка jar; при пересборке jar архив CDS устаревает и удаляется. */
+    private static Path extract(LoadTestOptions options) throws IOException, InterruptedException {
+        Path dir = WORK_DIR.resolve("app");
+        Path app = dir.resolve(options.startupJar.getFileName());
+        if (Files.exists(app) && Files.getLastModifiedTime(app).compareTo(Files.getLastModifiedTime(options.startupJar)) >= 0) {
+            return app;
+        }
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Djarmode=tools", "-jar", options.startupJar.toString(), "extract", "--destination", dir.toString(), "--force")
+                .inheritIO().start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Не удалось распаковать " + options.startupJar);
+        }
+        Files.deleteIfExists(options.cdsArchive);
+        return app;
+    }
+
+    private static boolean hasAotClasses(Path jar) throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            return file.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    /** VmRSS и VmHWM процесса в килобайтах; -1, если /proc недоступен (не Linux). */
+    private static long[] rssKb(long pid) {
+        long[] rss = {-1, -1};
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) rss[0] = Long.parseLong(line.replaceAll("\\D+", ""));
+                if (line.startsWith("VmHWM:")) rss[1] = Long.parseLong(line.replaceAll("\\D+", ""));
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return rss;
+    }
+
+    private static long median(long[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    /** Аргумент Spring по умолчанию; заданный явно в командной строке не перекрывается. */
+    private static void addDefault(LoadTestOptions options, List<String> springArgs, String name, String value) {
+        if (!options.hasSpringArg(name)) {
+            springArgs.add("--" + name + "=" + value);
+        }
+    }
+}
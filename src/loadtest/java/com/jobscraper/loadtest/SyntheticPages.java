@@ -0,0 +1,179 @@
+package com.jobscraper.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Содержимое подмены: вакансии листинга и HTML страниц вакансий.
+ * Если задан записанный ответ {@code /search/jobs}, его вакансии используются как шаблоны
+ * (меняются только id, slug, title, url и job_functions), иначе шаблон синтетический, той же структуры.
+ * Записанная страница вакансии отдаётся как есть; синтетическая повторяет разметку jobs.techstars.com.
+ */
+final class SyntheticPages {
+
+    private static final String[] LABOR_FUNCTIONS = {
+            "Software Engineering", "Data Science", "Product", "Design", "Sales & Business Development", "Operations"};
+
+    private static final long SHARED_ID_BASE = 900_000_000L;
+    private static final int SYNTHETIC_ORGANIZATIONS = 200;
+
+    private final ObjectMapper objectMapper;
+    private final List<String> industries;
+    private final int jobsPerIndustry;
+    private final int sharedJobs;
+    private final boolean payloadFunctions;
+    private final List<ObjectNode> templates;
+    private final boolean syntheticOrganizations;
+    private final byte[] recordedJobPage;
+
+    SyntheticPages(ObjectMapper objectMapper, List<String> industries, LoadTestOptions options) throws IOException {
+        this(objectMapper, industries, options.jobsPerIndustry, (int) (options.jobsPerIndustry * options.sharedJobs),
+                options.payloadFunctions, options.listingFile, options.jobPageFile);
+    }
+
+    SyntheticPages(ObjectMapper objectMapper, List<String> industries, int jobsPerIndustry, int sharedJobs,
+                   boolean payloadFunctions, Path listingFile, Path jobPageFile) throws IOException {
+        this.objectMapper = objectMapper;
+        this.industries = List.copyOf(industries);
+        this.jobsPerIndustry = jobsPerIndustry;
+        this.sharedJobs = Math.min(sharedJobs, jobsPerIndustry);
+        this.payloadFunctions = payloadFunctions;
+        this.templates = listingFile != null ? loadTemplates(listingFile) : List.of(syntheticTemplate());
+        this.syntheticOrganizations = listingFile == null;
+        this.recordedJobPage = jobPageFile != null ? Files.readAllBytes(jobPageFile) : null;
+    }
+
+    private List<ObjectNode> loadTemplates(Path listingFile) throws IOException {
+        JsonNode jobs = objectMapper.readTree(listingFile.toFile()).path("results").path("jobs");
+        List<ObjectNode> result = new ArrayList<>();
+        for (JsonNode job : jobs) {
+            if (job instanceof ObjectNode node) result.add(node);
+        }
+        if (result.isEmpty()) {
+            throw new IOException("В " + listingFile + " нет results.jobs");
+        }
+        return result;
+    }
+
+    private ObjectNode syntheticTemplate() {
+        ObjectNode job = objectMapper.createObjectNode();
+        job.put("featured", false);
+        job.putArray("searchable_locations").add("New York, NY, USA").add("Remote");
+        job.put("created_at", 1700000000L);
+        job.put("weight", 1);
+        job.put("source", "synthetic");
+        job.put("workMode", "remote");
+        ObjectNode org = job.putObject("organization");
+        org.put("stage", "series_a");
+        org.put("logo_url", "https://cdn.example.com/logo.png");
+        org.putArray("topics").add("ai").add("saas");
+        org.put("name", "Acme");
+        org.put("headCount", 3);
+        org.put("id", 42);
+        org.putArray("industryTags").add("Software").add("AI");
+        org.put("slug", "acme");
+        job.putArray("locations").add("New York");
+        job.put("has_description", true);
+        job.put("seniority", "senior");
+        return job;
+    }
+
+    /**
+     * Страница выдачи одной индустрии: {@code hitsPerPage} вакансий начиная с {@code page * hitsPerPage}.
+     * Первые {@code sharedJobs} вакансий у всех индустрий общие (один id), как у реальных вакансий
+     * с несколькими job_functions. Неизвестная индустрия даёт пустую выдачу.
+     */
+    byte[] industryPage(String industry, int page, int hitsPerPage) throws IOException {
+        int index = industries.indexOf(industry);
+        int total = index < 0 ? 0 : jobsPerIndustry;
+        return page(total, page, hitsPerPage, n -> n < sharedJobs ? sharedJob(n) : ownJob(index, n));
+    }
+
+    /** Выдача без фильтра: каждая вакансия коллекции один раз (сначала общие, затем по индустриям). */
+    byte[] collectionPage(int page, int hitsPerPage) throws IOException {
+        int own = jobsPerIndustry - sharedJobs;
+        int total = sharedJobs + industries.size() * own;
+        return page(total, page, hitsPerPage, n -> n < sharedJobs ? sharedJob(n)
+                : ownJob((n - sharedJobs) / own, sharedJobs + (n - sharedJobs) % own));
+    }
+
+    private byte[] page(int total, int page, int hitsPerPage, IntFunction<ObjectNode> job) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode results = root.putObject("results");
+        ArrayNode jobs = results.putArray("jobs");
+        int from = Math.max(0, page) * hitsPerPage;
+        int to = Math.min(total, from + hitsPerPage);
+        for (int n = from; n < to; n++) {
+            jobs.add(job.apply(n));
+        }
+        results.put("count", total);
+        return objectMapper.writeValueAsBytes(root);
+    }
+
+    private ObjectNode sharedJob(int n) {
+        return job(SHARED_ID_BASE + n, n, industries);
+    }
+
+    private ObjectNode ownJob(int industry, int n) {
+        return job((long) industry * 1_000_000 + n, n, List.of(industries.get(industry)));
+    }
+
+    private ObjectNode job(long id, int n, List<String> functions) {
+        ObjectNode job = templates.get(n % templates.size()).deepCopy();
+        job.put("id", id);
+        job.put("slug", "job-" + id);
+        job.put("title", "Engineer " + id);
+        job.put("url", "https://example.com/apply/" + id);
+        if (syntheticOrganizations) {
+            long orgId = 1 + id % SYNTHETIC_ORGANIZATIONS;
+            ObjectNode org = (ObjectNode) job.get("organization");
+            org.put("id", orgId);
+            org.put("slug", "company-" + orgId);
+            org.put("name", "Company " + orgId);
+        }
+        if (payloadFunctions) {
+            ArrayNode array = job.putArray("job_functions");
+            functions.forEach(array::add);
+        } else {
+            job.remove("job_functions");
+        }
+        return job;
+    }
+
+    byte[] jobPage(String slug) {
+        if (recordedJobPage != null) return recordedJobPage;
+        StringBuilder sb = new StringBuilder(48 * 1024);
+        sb.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>").append(slug)
+                .append("</title><style data-styled=\"\">.sc-beqWaB{display:flex}</style>");
+        for (int i = 0; i < 20; i++) {
+            sb.append("<link rel=\"preload\" href=\"/_next/static/chunks/").append(i).append(".js\" as=\"script\"/>");
+        }
+        sb.append("</head><body><div id=\"__next\"><header><nav><ul>");
+        for (int i = 0; i < 30; i++) {
+            sb.append("<li><a href=\"/jobs?f=").append(i).append("\">Link &amp; ").append(i).append("</a></li>");
+        }
+        sb.append("</ul></nav></header><main><div class=\"sc-beqWaB bpXRKw\">Acme Inc</div>")
+                .append("<div class=\"sc-beqWaB gKyoaH\"><div class=\"sc-beqWaB bpXRKw\">")
+                .append(LABOR_FUNCTIONS[Math.floorMod(slug.hashCode(), LABOR_FUNCTIONS.length)])
+                .append("</div><div class=\"sc-beqWaB bpXRKw\">New York</div></div>")
+                .append("<div class=\"sc-beqWaB fmCCHr\"><p>").append(slug).append(": we&#39;re hiring.</p><ul>");
+        for (int i = 0; i < 40; i++) {
+            sb.append("<li>Responsibility ").append(i).append(" with&nbsp;details</li>");
+        }
+        sb.append("</ul></div>");
+        for (int i = 0; i < 200; i++) {
+            sb.append("<div class=\"sc-beqWaB other\"><span>Similar job ").append(i).append("</span></div>");
+        }
+        return sb.append("</main></div></body></html>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
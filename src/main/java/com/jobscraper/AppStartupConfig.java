@@ -1,30 +1,65 @@
 package com.jobscraper;
 
+import com.jobscraper.config.ScheduleProperties;
 import com.jobscraper.services.JobDataService;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.context.annotation.Bean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 
-import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.time.Instant;
 
+/**
+ * Плановые прогоны без участия человека: по cron или с паузой между прогонами, плюс прогон сразу после старта.
+ * Задачи идут в одном потоке планировщика и не пересекаются; от прогонов других процессов защищает блокировка
+ * в {@link JobDataService#fetchAndSaveAllListPages()}. Прогон, прерванный остановкой, продолжится следующим запуском.
+ */
 @Configuration
-public class AppStartupConfig {
+@EnableScheduling
+// false - приложение только поднимает контекст, прогоны запускает вызывающий код (нагрузочный стенд)
+@ConditionalOnProperty(name = "scraper.schedule.enabled", havingValue = "true", matchIfMissing = true)
+public class AppStartupConfig implements SchedulingConfigurer {
 
     private final JobDataService jobDataService;
+    private final boolean runOnStartup;
+    private final String cron;
+    private final long fixedDelayMinutes;
 
-    public AppStartupConfig(JobDataService jobDataService) {
+    public AppStartupConfig(JobDataService jobDataService, ScheduleProperties schedule) {
         this.jobDataService = jobDataService;
+        this.runOnStartup = schedule.runOnStartup();
+        this.cron = schedule.cron();
+        this.fixedDelayMinutes = schedule.fixedDelayMinutes();
     }
 
-    @Bean
-    public CommandLineRunner runOnStartup() {
-        return args -> {
-            jobDataService.welcome();
-            for (int i = 0; i < 5; i++) {
-                jobDataService.fetchAndSaveAllListPages();
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (!cron.isBlank()) {
+            if (runOnStartup) {
+                // одноразовая задача: следующего запуска у триггера нет
+                registrar.addTriggerTask(this::scheduledRun, context -> context.lastCompletion() == null ? Instant.now() : null);
             }
-            jobDataService.shutdownExecutors();
-        };
+            registrar.addCronTask(this::scheduledRun, cron);
+            System.out.println("⏰ Прогоны по расписанию: " + cron);
+        } else if (fixedDelayMinutes > 0) {
+            Duration delay = Duration.ofMinutes(fixedDelayMinutes);
+            registrar.addFixedDelayTask(new FixedDelayTask(this::scheduledRun, delay, runOnStartup ? Duration.ZERO : delay));
+            System.out.println("⏰ Прогоны каждые " + fixedDelayMinutes + " мин после окончания предыдущего");
+        } else if (runOnStartup) {
+            registrar.addTriggerTask(this::scheduledRun, context -> context.lastCompletion() == null ? Instant.now() : null);
+        }
     }
-}
\ No newline at end of file
+
+    private void scheduledRun() {
+        try {
+            jobDataService.fetchAndSaveAllListPages();
+        } catch (RuntimeException e) {
+            // прогон остаётся RUNNING и будет продолжен следующим запуском
+            System.err.println("Прогон прерван ошибкой: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
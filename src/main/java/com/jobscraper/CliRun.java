@@ -0,0 +1,83 @@
+package com.jobscraper;
+
+import com.jobscraper.config.CliProperties;
+import com.jobscraper.config.EnrichmentProperties;
+import com.jobscraper.entity.Statistics;
+import com.jobscraper.services.JobDataService;
+import com.jobscraper.services.JobEnrichment;
+import com.jobscraper.services.ScrapeRuns;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Профиль {@code cli}: один прогон без веб-сервера и планировщика, затем выход с кодом итога.
+ * Режим и приёмники задаются обычными свойствами в аргументах ({@code --scraper.run.with-descriptions},
+ * {@code --scraper.sink.database}, {@code --scraper.export.enabled}); бины поднимаются лениво, поэтому
+ * неиспользуемые подсистемы (поиск, кэш страниц вакансий в прогоне без них) не стартуют вовсе.
+ * Коды выхода: 0 - прогон записан, 1 - прогон упал или записан как FAILED (часть страниц не загрузилась),
+ * 2 - пропущен, потому что идёт прогон другого процесса, 3 - прогон записан, но дозагрузка страниц вакансий
+ * не закончилась за отведённое время или упала (недочитанное возьмёт следующий проход).
+ */
+@Component
+@Profile(CliRun.PROFILE)
+public class CliRun implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String PROFILE = "cli";
+
+    private final JobDataService jobDataService;
+    private final JobEnrichment jobEnrichment;
+    private final ScrapeRuns scrapeRuns;
+    private final boolean awaitEnrichment;
+    private final long enrichmentMaxSeconds;
+    private int exitCode = 1;
+
+    public CliRun(JobDataService jobDataService, JobEnrichment jobEnrichment, ScrapeRuns scrapeRuns,
+                  CliProperties cli, EnrichmentProperties enrichment) {
+        this.jobDataService = jobDataService;
+        this.jobEnrichment = jobEnrichment;
+        this.scrapeRuns = scrapeRuns;
+        this.awaitEnrichment = cli.awaitEnrichment();
+        this.enrichmentMaxSeconds = enrichment.maxSeconds();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        try {
+            Statistics stats = jobDataService.fetchAndSaveAllListPages();
+            if (stats == null) {
+                exitCode = 2;
+                return;
+            }
+            if (scrapeRuns.failed(stats)) {
+                System.err.println("Прогон записан как FAILED: часть страниц листинга не загрузилась");
+                exitCode = 1;
+                return;
+            }
+            if (awaitEnrichment && jobEnrichment.running()) {
+                // фоновая дозагрузка умерла бы вместе с процессом; недочитанное взял бы следующий прогон
+                System.out.println("⏳ Ждём дозагрузку страниц вакансий перед выходом");
+                if (jobEnrichment.await(Duration.ofSeconds(enrichmentMaxSeconds + 60)) == null) {
+                    System.err.println("Дозагрузка страниц вакансий не закончилась за " + (enrichmentMaxSeconds + 60)
+                            + " с или упала; недочитанное возьмёт следующий проход");
+                    exitCode = 3;
+                    return;
+                }
+            }
+            exitCode = 0;
+        } catch (RuntimeException e) {
+            // прогон остаётся RUNNING и будет продолжен следующим запуском
+            System.err.println("Прогон прерван ошибкой: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
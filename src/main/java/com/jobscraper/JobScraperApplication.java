@@ -2,21 +2,35 @@ package com.jobscraper;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.core.env.Profiles;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class JobScraperApplication {
 
     public static void main(String[] args) {
         System.setProperty("java.io.tmpdir", "/tmp/job-scraper"); // создаст tmp специально для приложения
         new java.io.File("/tmp/job-scraper").mkdirs(); // на случай, если папка не существует
-        SpringApplication.run(JobScraperApplication.class, args);
-
+        ConfigurableApplicationContext context = SpringApplication.run(JobScraperApplication.class, args);
+        if (context.getEnvironment().acceptsProfiles(Profiles.of(CliRun.PROFILE))) {
+            // профиль cli: один прогон уже прошёл в CliRun, код выхода - его итог
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
+    // Один клиент на API Getro и страницы вакансий: общий пул соединений, HTTP/2 там, где сервер его поддерживает
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpClient httpClient() {
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
     }
 }
@@ -0,0 +1,17 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Лента изменений /changes ({@code scraper.changes.*}): добавленные, изменённые и пропавшие вакансии каждого прогона.
+ */
+@ConfigurationProperties("scraper.changes")
+public record ChangesProperties(@DefaultValue("true") boolean enabled,
+                                @DefaultValue Stream stream) {
+
+    /** Поток SSE: период опроса новых записей и время жизни соединения. */
+    public record Stream(@DefaultValue("2000") long pollMs,
+                         @DefaultValue("30") long timeoutMinutes) {
+    }
+}
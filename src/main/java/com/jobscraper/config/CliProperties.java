@@ -0,0 +1,13 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Профиль cli ({@code scraper.cli.*}).
+ *
+ * @param awaitEnrichment дождаться фоновой дозагрузки страниц вакансий перед выходом
+ */
+@ConfigurationProperties("scraper.cli")
+public record CliProperties(@DefaultValue("true") boolean awaitEnrichment) {
+}
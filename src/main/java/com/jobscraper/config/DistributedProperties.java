@@ -0,0 +1,19 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Несколько узлов на одной БД ({@code scraper.distributed.*}).
+ *
+ * @param nodeId       пусто - pid@host и случайный хвост
+ * @param leaseSeconds аренда страницы; страницы упавшего узла возвращаются в очередь по её окончании
+ */
+@ConfigurationProperties("scraper.distributed")
+public record DistributedProperties(@DefaultValue("false") boolean enabled,
+                                    @DefaultValue("") String nodeId,
+                                    @DefaultValue("60") long leaseSeconds,
+                                    @DefaultValue("3") int maxAttempts,
+                                    @DefaultValue("30") long joinWaitSeconds,
+                                    @DefaultValue("1000") long pollMs) {
+}
@@ -0,0 +1,29 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Страницы вакансий ({@code scraper.enrichment.*}): режим и бюджет фонового прохода.
+ *
+ * @param maxPages    бюджет одного прохода (страниц и секунд); остаток берёт следующий: сначала ни разу
+ *                    не дочитанные, новые postedDate первыми
+ * @param refreshDays дочитанные раньше стольких дней назад перечитываются после всех новых
+ */
+@ConfigurationProperties("scraper.enrichment")
+public record EnrichmentProperties(@DefaultValue("BACKGROUND") Mode mode,
+                                   @DefaultValue("16") int workers,
+                                   @DefaultValue("5000") int maxPages,
+                                   @DefaultValue("900") long maxSeconds,
+                                   @DefaultValue("200") int batchSize,
+                                   @DefaultValue("7") long refreshDays) {
+
+    /** BACKGROUND - дочитывает фоновый проход после прогона, INLINE - страница вакансии в конвейере. */
+    public enum Mode {
+        BACKGROUND, INLINE
+    }
+
+    public boolean background() {
+        return mode != Mode.INLINE;
+    }
+}
@@ -0,0 +1,20 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Выгрузка прогона в файл ({@code scraper.export.*}): NDJSON в gzip и колонки кодов по блокам,
+ * футер с индексом по функциям и датам.
+ *
+ * @param blockRecords  записей в одном блоке
+ * @param queueCapacity пачек, ждущих потока выгрузки; при заполнении писатель БД ждёт
+ */
+@ConfigurationProperties("scraper.export")
+public record ExportProperties(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("/tmp/job-scraper/export") Path dir,
+                               @DefaultValue("1000") int blockRecords,
+                               @DefaultValue("64") int queueCapacity) {
+}
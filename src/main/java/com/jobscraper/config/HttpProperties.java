@@ -0,0 +1,17 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Адаптивный лимит исходящих запросов (AIMD, отдельно на каждый хост) и повторы ({@code scraper.http.*}).
+ */
+@ConfigurationProperties("scraper.http")
+public record HttpProperties(@DefaultValue("8") int initialConcurrency,
+                             @DefaultValue("1") int minConcurrency,
+                             @DefaultValue("64") int maxConcurrency,
+                             @DefaultValue("2000") long latencyThresholdMs,
+                             @DefaultValue("5") int maxAttempts,
+                             @DefaultValue("500") long backoffBaseMs,
+                             @DefaultValue("30000") long backoffMaxMs) {
+}
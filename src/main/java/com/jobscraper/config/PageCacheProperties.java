@@ -0,0 +1,19 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Дисковый кэш страниц вакансий ({@code scraper.cache.*}): LRU по объёму, TTL до перепроверки условным GET.
+ *
+ * @param memoEntries сколько результатов разбора страниц держать в памяти (по хэшу тела)
+ */
+@ConfigurationProperties("scraper.cache")
+public record PageCacheProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("/tmp/job-scraper/pages") Path dir,
+                                  @DefaultValue("536870912") long maxBytes,
+                                  @DefaultValue("24") long ttlHours,
+                                  @DefaultValue("20000") int memoEntries) {
+}
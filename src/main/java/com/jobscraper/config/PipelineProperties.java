@@ -0,0 +1,25 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Конвейер fetch -> parse -> enrich -> persist ({@code scraper.pipeline.*}): воркеры и ёмкость очереди каждого этапа.
+ */
+@ConfigurationProperties("scraper.pipeline")
+public record PipelineProperties(@DefaultValue Parse parse,
+                                 @DefaultValue Enrich enrich,
+                                 @DefaultValue("10000") long reportIntervalMs) {
+
+    public interface Stage {
+        int workers();
+
+        int queueCapacity();
+    }
+
+    public record Parse(@DefaultValue("2") int workers, @DefaultValue("1000") int queueCapacity) implements Stage {
+    }
+
+    public record Enrich(@DefaultValue("32") int workers, @DefaultValue("500") int queueCapacity) implements Stage {
+    }
+}
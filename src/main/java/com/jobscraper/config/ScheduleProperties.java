@@ -0,0 +1,18 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Плановые прогоны ({@code scraper.schedule.*}). {@code scraper.schedule.enabled=false} отключает их совсем
+ * (контекст поднимается, прогоны запускает вызывающий код); его читает условие на {@link com.jobscraper.AppStartupConfig}.
+ *
+ * @param runOnStartup      прогон сразу после старта (прерванный прогон в том же режиме продолжается с записанных страниц)
+ * @param cron              cron Spring из 6 полей, например {@code 0 0 0/6 * * *}; пусто - повтор с паузой fixedDelayMinutes
+ * @param fixedDelayMinutes пауза между концом прогона и началом следующего; 0 - без повторов
+ */
+@ConfigurationProperties("scraper.schedule")
+public record ScheduleProperties(@DefaultValue("true") boolean runOnStartup,
+                                 @DefaultValue("") String cron,
+                                 @DefaultValue("360") long fixedDelayMinutes) {
+}
@@ -0,0 +1,62 @@
+package com.jobscraper.config;
+
+import com.jobscraper.services.CrawlMode;
+import com.jobscraper.services.ExecutionMode;
+import com.jobscraper.services.JobMapper;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Прогон листинга ({@code scraper.*}): источник данных, обход и режим исполнения.
+ * Группы писателя, конвейера, узлов, страниц вакансий и HTTP - в своих классах настроек.
+ *
+ * @param incremental     true - обновлять только изменившиеся вакансии, false - полная перезаливка таблиц
+ * @param pageConcurrency сколько страниц листинга (всех индустрий) обрабатывается одновременно
+ * @param executionMode   POOLED - пулы платформенных потоков, VIRTUAL - виртуальные потоки (нужна Java 21+)
+ * @param industries      пусто - все 16 индустрий Techstars
+ * @param jobsBaseUrl     сайт со страницами вакансий (нагрузочный стенд подменяет его, как и API)
+ * @param extractor       STREAMING - потоковый сканер HTML (с откатом на DOM), DOM - полный разбор Jsoup
+ */
+@ConfigurationProperties("scraper")
+public record ScraperProperties(@DefaultValue("true") boolean incremental,
+                                @DefaultValue("8") int pageConcurrency,
+                                @DefaultValue("POOLED") ExecutionMode executionMode,
+                                @DefaultValue List<String> industries,
+                                @DefaultValue(JobMapper.DEFAULT_JOBS_BASE_URL) String jobsBaseUrl,
+                                @DefaultValue("STREAMING") Extractor extractor,
+                                @DefaultValue Api api,
+                                @DefaultValue Crawl crawl,
+                                @DefaultValue Run run,
+                                @DefaultValue Log log) {
+
+    public record Api(@DefaultValue("https://api.getro.com/api/v2/collections/89/search/jobs") String jobsUrl) {
+    }
+
+    /**
+     * @param mode           PER_INDUSTRY - поток страниц с фильтром на каждую индустрию, UNFILTERED - один проход
+     *                       по всей коллекции, индустрии из job_functions вакансии (для вакансий без них -
+     *                       облегчённый проход по индустриям)
+     * @param maxHitsPerPage размер страницы в режиме UNFILTERED и в проходе сопоставления
+     */
+    public record Crawl(@DefaultValue("PER_INDUSTRY") CrawlMode mode,
+                        @DefaultValue("100") int maxHitsPerPage) {
+    }
+
+    /**
+     * @param withDescriptions true - с описаниями и функциями со страниц вакансий, false - только данные листинга
+     * @param lockKey          ключ advisory-блокировки PostgreSQL, которая не даёт прогонам пересекаться
+     */
+    public record Run(@DefaultValue("false") boolean withDescriptions,
+                      @DefaultValue("4242001") long lockKey) {
+    }
+
+    /** @param jobSampleRate построчный лог: каждая N-я вакансия на уровне DEBUG */
+    public record Log(@DefaultValue("100") int jobSampleRate) {
+    }
+
+    public enum Extractor {
+        STREAMING, DOM
+    }
+}
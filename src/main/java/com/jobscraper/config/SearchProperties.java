@@ -0,0 +1,29 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * API поиска /jobs ({@code scraper.search.*}).
+ *
+ * @param fetchSize сколько строк читать из курсора БД за раз при потоковой отдаче
+ */
+@ConfigurationProperties("scraper.search")
+public record SearchProperties(@DefaultValue("500") int fetchSize,
+                               @DefaultValue Cache cache) {
+
+    /**
+     * Кэш ответов /jobs и /jobs/facets в памяти. Версия данных - id последней записи statistics,
+     * прогоны других процессов замечаются опросом.
+     *
+     * @param maxBytes       бюджет кэша в байтах
+     * @param maxLimit       страницы крупнее не кэшируются
+     * @param versionCheckMs период опроса версии данных
+     */
+    public record Cache(@DefaultValue("true") boolean enabled,
+                        @DefaultValue("67108864") long maxBytes,
+                        @DefaultValue("200") int maxLimit,
+                        @DefaultValue("60") long ttlMinutes,
+                        @DefaultValue("30000") long versionCheckMs) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.jobscraper.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Писатель в БД ({@code scraper.sink.*}): ограниченная очередь, сброс по размеру пачки или по времени.
+ *
+ * @param database false - вакансии и страницы листинга только в выгрузку, в БД пишутся лишь отметки страниц
+ */
+@ConfigurationProperties("scraper.sink")
+public record SinkProperties(@DefaultValue("5000") int queueCapacity,
+                             @DefaultValue("500") int batchSize,
+                             @DefaultValue("1000") long flushIntervalMs,
+                             @DefaultValue("true") boolean database) {
+}
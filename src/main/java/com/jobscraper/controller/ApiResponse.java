@@ -1,5 +1,6 @@
 package com.jobscraper.controller;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,11 +9,13 @@ import java.util.List;
 
 @Getter
 @Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ApiResponse {
     private Results results;
 
     @Getter
     @Setter
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Results {
         private List<Job> jobs;
         private int count;
@@ -20,6 +23,7 @@ public class ApiResponse {
 
     @Getter
     @Setter
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Job {
         private boolean featured;
         private Long compensationAmountMaxCents;
@@ -43,10 +47,14 @@ public class ApiResponse {
         private String slug;
         private String seniority;
         private long id;
+        // только чтение: в хэш содержимого не входит, индустрии хранятся отдельно в item.jobFunctions
+        @JsonProperty(value = "job_functions", access = JsonProperty.Access.WRITE_ONLY)
+        private List<String> jobFunctions;
     }
 
     @Getter
     @Setter
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Organization {
         private String stage;
         @JsonProperty("logo_url")
@@ -0,0 +1,57 @@
+package com.jobscraper.controller;
+
+import com.jobscraper.services.ChangeFeed;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Лента изменений вакансий по прогонам.
+ * <pre>
+ * GET /changes?after=0&amp;limit=500   записи после курсора (nextCursor из предыдущего ответа)
+ * GET /changes?run=42                только прогон 42 (id statistics)
+ * GET /changes/stream?after=0        SSE: записи после курсора, затем новые по мере прогонов
+ * </pre>
+ */
+@RestController
+@RequestMapping("/changes")
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+
+    public ChangeFeedController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> page(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Long run,
+            @RequestParam(defaultValue = "" + ChangeFeed.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> changeFeed.page(after, run, limit, out));
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(defaultValue = "0") long after,
+                             @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        long cursor = after;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                cursor = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Last-Event-ID: " + lastEventId);
+            }
+        }
+        return changeFeed.stream(cursor);
+    }
+}
@@ -0,0 +1,20 @@
+package com.jobscraper.controller;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.jobscraper.entity.JobChange;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись ленты {@code /changes}. {@code id} - курсор: следующий запрос передаёт его в {@code after}.
+ * Подробности вакансии - {@code /jobs/{itemId}} (у REMOVED вакансия уже не отдаётся).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record JobChangeView(long id,
+                            long run,
+                            LocalDateTime runAt,
+                            JobChange.Kind kind,
+                            Long itemId,
+                            String url,
+                            String contentHash) {
+}
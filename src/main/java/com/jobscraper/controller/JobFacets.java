@@ -0,0 +1,13 @@
+package com.jobscraper.controller;
+
+import java.util.List;
+
+/**
+ * Ответ {@code /jobs/facets}: сколько вакансий подходит под фильтры и как они делятся по функциям и тегам.
+ * Корзины отсортированы по убыванию числа вакансий.
+ */
+public record JobFacets(long total, List<Bucket> laborFunctions, List<Bucket> tags) {
+
+    public record Bucket(String value, long count) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.jobscraper.controller;
+
+import com.jobscraper.services.JobSearchQuery;
+import com.jobscraper.services.JobSearchService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Чтение сохранённых вакансий.
+ * <pre>
+ * GET /jobs?q=kotlin&amp;laborFunction=Software%20Engineering&amp;tag=Series%20A&amp;location=remote&amp;limit=100
+ * GET /jobs?cursor=...   следующая страница (nextCursor из предыдущего ответа, остальные фильтры те же)
+ * GET /jobs/facets?laborFunction=...   число вакансий и разбивка по функциям и тегам при тех же фильтрах
+ * GET /jobs/{id}         одна вакансия с описанием
+ * </pre>
+ */
+@RestController
+@RequestMapping("/jobs")
+public class JobSearchController {
+
+    private final JobSearchService jobSearchService;
+
+    public JobSearchController(JobSearchService jobSearchService) {
+        this.jobSearchService = jobSearchService;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> search(
+            @RequestParam(name = "q", required = false) String text,
+            @RequestParam(required = false) String laborFunction,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Long organizationId,
+            @RequestParam(required = false) String organization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate postedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate postedTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + JobSearchService.DEFAULT_LIMIT) int limit,
+            @RequestParam(defaultValue = "false") boolean withDescription) {
+        JobSearchQuery.Cursor after;
+        try {
+            after = JobSearchQuery.Cursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        JobSearchQuery query = new JobSearchQuery(text, laborFunction, tags, location, organizationId, organization,
+                postedFrom, postedTo, after, limit, withDescription);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> jobSearchService.search(query, out));
+    }
+
+    @GetMapping(path = "/facets", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> facets(
+            @RequestParam(name = "q", required = false) String text,
+            @RequestParam(required = false) String laborFunction,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) Long organizationId,
+            @RequestParam(required = false) String organization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate postedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate postedTo,
+            @RequestParam(defaultValue = "" + JobSearchService.DEFAULT_FACET_SIZE) int size) {
+        JobSearchQuery query = new JobSearchQuery(text, laborFunction, tags, location, organizationId, organization,
+                postedFrom, postedTo, null, 0, false);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jobSearchService.facets(query, size));
+    }
+
+    @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public JobView get(@PathVariable long id) {
+        return jobSearchService.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+}
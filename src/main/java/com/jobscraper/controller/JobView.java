@@ -0,0 +1,26 @@
+package com.jobscraper.controller;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Вакансия в ответе {@code /jobs}. Описание отдаётся только по запросу ({@code withDescription=true}) и в {@code /jobs/{id}}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record JobView(long id,
+                      String positionName,
+                      String url,
+                      String laborFunction,
+                      List<String> jobFunctions,
+                      String address,
+                      LocalDate postedDate,
+                      Organization organization,
+                      List<String> tags,
+                      String description) {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Organization(long id, String name, String logoUrl) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.jobscraper.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Владелец вакансии в распределённом прогоне: страница листинга, на которой вакансия встретилась первой.
+ * Item пишет только обработка этой страницы, на каком бы узле она ни шла (и при повторе после истёкшей аренды).
+ */
+@Entity
+@Data
+@Table(name = "claimed_job",
+        uniqueConstraints = @UniqueConstraint(name = "uk_claimed_job_key", columnNames = {"runId", "jobKey"}),
+        indexes = @Index(name = "idx_claimed_job_url", columnList = "runId, url"))
+public class ClaimedJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "runId", nullable = false)
+    private Long runId;
+
+    @Column(name = "jobKey", nullable = false)
+    private String jobKey;
+
+    @Column(name = "url", columnDefinition = "text", nullable = false)
+    private String url;
+
+    @Column(name = "listing", nullable = false)
+    private String listing;
+
+    @Column(name = "page", nullable = false)
+    private int page;
+
+    // ADDED/UPDATED/UNCHANGED по снимку владельца (null без инкрементального режима)
+    @Column(name = "outcome")
+    private String outcome;
+}
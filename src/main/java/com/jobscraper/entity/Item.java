@@ -1,21 +1,29 @@
 package com.jobscraper.entity;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.ToString;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 @Entity
-@Table(name = "item")
+@Table(name = "item", indexes = {
+        @Index(name = "idx_item_organization", columnList = "organizationId"),
+        @Index(name = "idx_item_url", columnList = "url")})
 @Data
 public class Item {
 
+    // pooled-последовательность вместо IDENTITY, иначе Hibernate не батчит INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "positionName")
@@ -24,12 +32,12 @@ public class Item {
     @Column(name = "url", columnDefinition = "text")
     private String url;
 
-    @JsonProperty("logo_url")
-    @Column(name = "logoUrl")
-    private String logoUrl;
-
-    @Column(name = "organizationTitle")
-    private String organizationTitle;
+    // название и логотип хранятся один раз в organization
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "organizationId")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Organization organization;
 
     @Column(name = "laborFunction")
     private String laborFunction;
@@ -43,4 +51,32 @@ public class Item {
 
     @Column(name = "description", columnDefinition = "text")
     private String description;
+
+    // все индустрии (job_functions), в выдаче которых вакансия встретилась, через запятую
+    @Column(name = "jobFunctions", columnDefinition = "text")
+    private String jobFunctions;
+
+    // теги вакансии без индустрии (сфера и размер компании, стадия, уровень) для фильтра /jobs?tag=
+    @ManyToMany
+    @JoinTable(name = "item_tag",
+            joinColumns = @JoinColumn(name = "itemId"),
+            inverseJoinColumns = @JoinColumn(name = "tagId"),
+            indexes = @Index(name = "idx_item_tag_tag", columnList = "tagId"))
+    @OrderColumn(name = "position")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<Tag> tags = new ArrayList<>();
+
+    @Column(name = "contentHash", length = 64)
+    private String contentHash;
+
+    // когда страница вакансии последний раз дочитана (laborFunction, description) и для какого contentHash
+    @Column(name = "enrichedAt")
+    private LocalDateTime enrichedAt;
+
+    @Column(name = "enrichedHash", length = 64)
+    private String enrichedHash;
+
+    @Column(name = "deleted", nullable = false, columnDefinition = "boolean default false")
+    private boolean deleted;
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.jobscraper.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Запись ленты изменений: вакансия добавлена, изменилась (по contentHash) или пропала в прогоне {@code statisticsId}.
+ * Строки только дописываются, в одной транзакции со statistics прогона; id растёт и служит курсором ленты.
+ */
+@Entity
+@Table(name = "job_change", indexes = @Index(name = "idx_job_change_statistics", columnList = "statisticsId, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobChange {
+
+    public enum Kind {
+        ADDED, UPDATED, REMOVED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "statisticsId", nullable = false)
+    private Long statisticsId;
+
+    // null, если Item не записан в БД (scraper.sink.database=false)
+    @Column(name = "itemId")
+    private Long itemId;
+
+    @Column(name = "url", columnDefinition = "text", nullable = false)
+    private String url;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 16)
+    private Kind kind;
+
+    // хэш после изменения; у REMOVED - последний известный
+    @Column(name = "contentHash", length = 64)
+    private String contentHash;
+}
@@ -0,0 +1,25 @@
+package com.jobscraper.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/** Индустрия, в которой вакансия встретилась в распределённом прогоне; из них в конце собирается {@code item.jobFunctions}. */
+@Entity
+@Data
+@Table(name = "job_sighting",
+        uniqueConstraints = @UniqueConstraint(name = "uk_job_sighting", columnNames = {"runId", "jobKey", "industry"}))
+public class JobSighting {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "runId", nullable = false)
+    private Long runId;
+
+    @Column(name = "jobKey", nullable = false)
+    private String jobKey;
+
+    @Column(name = "industry", nullable = false)
+    private String industry;
+}
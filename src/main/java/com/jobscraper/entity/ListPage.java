@@ -5,14 +5,19 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Entity
-@Table(name = "list_page")
+@Table(name = "list_page", indexes = @Index(name = "idx_list_page_url_function", columnList = "url, jobFunction"))
 @Getter
 @Setter
 public class ListPage {
 
+    // pooled-последовательность вместо IDENTITY, иначе Hibernate не батчит INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "list_page_seq")
+    @SequenceGenerator(name = "list_page_seq", sequenceName = "list_page_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "jobFunction")
@@ -24,6 +29,12 @@ public class ListPage {
     @Column(name = "url", columnDefinition = "text")
     private String url;
 
-    @Column(name = "tags", columnDefinition = "text")
-    private String tags;
+    // теги по порядку (индустрия первой); индекс по tagId превращает фильтр по тегу в поиск по индексу
+    @ManyToMany
+    @JoinTable(name = "list_page_tag",
+            joinColumns = @JoinColumn(name = "listPageId"),
+            inverseJoinColumns = @JoinColumn(name = "tagId"),
+            indexes = @Index(name = "idx_list_page_tag_tag", columnList = "tagId"))
+    @OrderColumn(name = "position")
+    private List<Tag> tags = new ArrayList<>();
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.jobscraper.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Курсор потока листинга в прогоне: сколько в нём вакансий при данном размере страницы.
+ * По нему продолженный прогон знает число страниц, не запрашивая первую страницу заново.
+ */
+@Entity
+@Data
+@Table(name = "listing_cursor",
+        uniqueConstraints = @UniqueConstraint(name = "uk_listing_cursor_run_listing", columnNames = {"runId", "listing"}))
+public class ListingCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "runId", nullable = false)
+    private Long runId;
+
+    // индустрия или "all" для обхода без фильтра
+    @Column(name = "listing", nullable = false)
+    private String listing;
+
+    @Column(name = "hitsPerPage", nullable = false)
+    private int hitsPerPage;
+
+    @Column(name = "countJobs", nullable = false)
+    private int countJobs;
+}
@@ -0,0 +1,49 @@
+package com.jobscraper.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Компания из Getro. Ключ - id организации в API, поэтому строка вставляется один раз,
+ * а вакансии ссылаются на неё по id вместо повторения названия и логотипа.
+ */
+@Entity
+@Table(name = "organization")
+@Getter
+@Setter
+public class Organization implements Persistable<Long> {
+
+    // естественный ключ из API, без последовательности
+    @Id
+    private Long id;
+
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "logoUrl", columnDefinition = "text")
+    private String logoUrl;
+
+    @Column(name = "slug")
+    private String slug;
+
+    // для Persistable: с присвоенным id иначе каждый save начинался бы с SELECT
+    @Transient
+    private boolean persisted;
+
+    // название/логотип поменялись после загрузки, строку нужно обновить
+    @Transient
+    private volatile boolean changed;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
@@ -0,0 +1,38 @@
+package com.jobscraper.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Страница листинга, все вакансии которой записаны. Пишется той же очередью {@code PersistenceSink}
+ * после записей страницы, поэтому попадает в БД в той же или более поздней транзакции, что и они.
+ */
+@Entity
+@Table(name = "page_checkpoint", indexes = @Index(name = "idx_page_checkpoint_page", columnList = "runId, listing, page"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class PageCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "page_checkpoint_seq")
+    @SequenceGenerator(name = "page_checkpoint_seq", sequenceName = "page_checkpoint_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "runId", nullable = false)
+    private Long runId;
+
+    @Column(name = "listing", nullable = false)
+    private String listing;
+
+    @Column(name = "page", nullable = false)
+    private int page;
+
+    public PageCheckpoint(Long runId, String listing, int page) {
+        this.runId = runId;
+        this.listing = listing;
+        this.page = page;
+    }
+}
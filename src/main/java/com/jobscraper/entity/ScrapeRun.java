@@ -0,0 +1,51 @@
+package com.jobscraper.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Прогон скрапера. Пока статус RUNNING, прогон держит блокировку; RUNNING без блокировки значит,
+ * что процесс упал или был остановлен посреди прогона, и следующий запуск продолжит его с сохранённых страниц.
+ * Распределённый прогон блокировку держит только координатор; остальные узлы присоединяются без неё.
+ */
+@Entity
+@Data
+@Table(name = "scrape_run")
+public class ScrapeRun {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        /** завершён, но часть страниц не загрузилась */
+        FAILED,
+        /** прерван и не продолжен: следующий прогон запущен в другом режиме */
+        ABANDONED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    private String crawlMode;
+
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean withDescriptions;
+
+    // страницы делят несколько узлов через work_unit
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean distributed;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int resumes;
+
+    private Long statisticsId;
+}
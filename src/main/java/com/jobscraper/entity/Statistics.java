@@ -20,4 +20,29 @@ public class Statistics {
 
     @Column(nullable = false, columnDefinition = "boolean default false")
     private boolean decriptionsAndLaborFunctions;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int jobsAdded;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int jobsUpdated;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int jobsUnchanged;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int jobsRemoved;
+
+    private String executionMode;
+    // пик платформенных потоков JVM, в том числе несущих виртуальные
+    private Integer peakThreads;
+    private Integer peakCarrierThreads;
+    // виртуальные потоки ThreadMXBean не видит: пик живых задач исполнителей режима VIRTUAL
+    private Integer peakVirtualThreads;
+    private Long peakRssKb;
+    private Long peakHeapKb;
+    // узлов, бравших страницы распределённого прогона (null - прогон на одном узле)
+    private Integer nodes;
+    // вакансий, дозагруженных фоновым проходом после этого прогона (null - прохода не было)
+    private Integer jobsEnriched;
 }
\ No newline at end of file
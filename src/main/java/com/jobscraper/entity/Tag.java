@@ -0,0 +1,24 @@
+package com.jobscraper.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Значение тега (индустрия, размер компании, стадия, уровень). Каждое значение хранится один раз,
+ * страницы листинга ссылаются на теги через {@code list_page_tag}.
+ */
+@Entity
+@Table(name = "tag", uniqueConstraints = @UniqueConstraint(name = "uk_tag_name", columnNames = "name"))
+@Getter
+@Setter
+public class Tag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tag_seq")
+    @SequenceGenerator(name = "tag_seq", sequenceName = "tag_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+}
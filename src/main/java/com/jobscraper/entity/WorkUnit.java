@@ -0,0 +1,53 @@
+package com.jobscraper.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Страница листинга как единица работы распределённого прогона. Узел забирает её с арендой до {@code leaseUntil};
+ * если узел не отметил страницу ({@link PageCheckpoint}) до конца аренды, страницу берёт другой узел.
+ */
+@Entity
+@Data
+@Table(name = "work_unit",
+        uniqueConstraints = @UniqueConstraint(name = "uk_work_unit_page", columnNames = {"runId", "listing", "page"}))
+public class WorkUnit {
+
+    public enum Status {
+        PENDING,
+        CLAIMED,
+        /** страница не загрузилась за {@code scraper.distributed.max-attempts} попыток */
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "runId", nullable = false)
+    private Long runId;
+
+    @Column(name = "listing", nullable = false)
+    private String listing;
+
+    @Column(name = "page", nullable = false)
+    private int page;
+
+    @Column(name = "hitsPerPage", nullable = false)
+    private int hitsPerPage;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "node")
+    private String node;
+
+    @Column(name = "leaseUntil")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "attempts", nullable = false, columnDefinition = "integer default 0")
+    private int attempts;
+}
@@ -1,12 +1,38 @@
 package com.jobscraper.repository;
 
 import com.jobscraper.entity.Item;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ItemRepository extends JpaRepository<Item, Integer> {
+public interface ItemRepository extends JpaRepository<Item, Long> {
     Optional<Item> findByUrl(String url);
-}
\ No newline at end of file
+
+    List<Item> findByOrganizationId(Long organizationId);
+
+    List<ItemSnapshot> findAllBy();
+
+    Optional<ItemSnapshot> findFirstSnapshotByUrl(String url);
+
+    @EntityGraph(attributePaths = "tags")
+    List<Item> findWithTagsByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("update Item i set i.deleted = true where i.id in :ids")
+    int softDeleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("update Item i set i.jobFunctions = :jobFunctions where i.url in :urls")
+    int updateJobFunctionsByUrlIn(@Param("jobFunctions") String jobFunctions, @Param("urls") Collection<String> urls);
+}
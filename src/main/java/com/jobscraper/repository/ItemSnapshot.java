@@ -0,0 +1,14 @@
+package com.jobscraper.repository;
+
+/**
+ * Лёгкая проекция {@link com.jobscraper.entity.Item} для инкрементального прогона:
+ * только ключ, хэш содержимого, индустрии, флаг мягкого удаления и хэш, для которого дочитана страница вакансии.
+ */
+public interface ItemSnapshot {
+    Long getId();
+    String getUrl();
+    String getContentHash();
+    String getJobFunctions();
+    boolean isDeleted();
+    String getEnrichedHash();
+}
@@ -1,9 +1,32 @@
 package com.jobscraper.repository;
 
 import com.jobscraper.entity.ListPage;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ListPageRepository extends JpaRepository<ListPage, Integer> {
-}
\ No newline at end of file
+public interface ListPageRepository extends JpaRepository<ListPage, Long> {
+    Optional<ListPageSnapshot> findFirstSnapshotByUrlAndJobFunction(String url, String jobFunction);
+
+    List<ListPageSnapshot> findAllBy();
+
+    @EntityGraph(attributePaths = "tags")
+    List<ListPage> findWithTagsByIdIn(Collection<Long> ids);
+
+    List<ListPage> findByTagsName(String name);
+
+    @Modifying
+    @Transactional
+    @Query("update ListPage l set l.countJobs = :countJobs where l.jobFunction = :jobFunction "
+            + "and (l.countJobs is null or l.countJobs <> :countJobs)")
+    int updateCountJobsByJobFunction(@Param("jobFunction") String jobFunction, @Param("countJobs") int countJobs);
+}
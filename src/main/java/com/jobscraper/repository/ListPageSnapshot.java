@@ -0,0 +1,10 @@
+package com.jobscraper.repository;
+
+/**
+ * Лёгкая проекция {@link com.jobscraper.entity.ListPage} для инкрементального прогона: id по паре (url, индустрия).
+ */
+public interface ListPageSnapshot {
+    Long getId();
+    String getUrl();
+    String getJobFunction();
+}
@@ -0,0 +1,12 @@
+package com.jobscraper.repository;
+
+import com.jobscraper.entity.ListingCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ListingCursorRepository extends JpaRepository<ListingCursor, Long> {
+    List<ListingCursor> findByRunId(Long runId);
+}
@@ -0,0 +1,9 @@
+package com.jobscraper.repository;
+
+import com.jobscraper.entity.Organization;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrganizationRepository extends JpaRepository<Organization, Long> {
+}
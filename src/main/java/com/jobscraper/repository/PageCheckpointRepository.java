@@ -0,0 +1,12 @@
+package com.jobscraper.repository;
+
+import com.jobscraper.entity.PageCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PageCheckpointRepository extends JpaRepository<PageCheckpoint, Long> {
+    List<PageCheckpoint> findByRunId(Long runId);
+}
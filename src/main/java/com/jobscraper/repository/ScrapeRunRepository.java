@@ -0,0 +1,14 @@
+package com.jobscraper.repository;
+
+import com.jobscraper.entity.ScrapeRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ScrapeRunRepository extends JpaRepository<ScrapeRun, Long> {
+    List<ScrapeRun> findByStatusOrderByIdDesc(ScrapeRun.Status status);
+
+    boolean existsByStatisticsIdAndStatus(Long statisticsId, ScrapeRun.Status status);
+}
@@ -2,8 +2,13 @@ package com.jobscraper.repository;
 
 import com.jobscraper.entity.Statistics;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface StatisticsRepository extends JpaRepository<Statistics, Long> {
+
+    /** Версия данных для кэша поиска: id последнего завершённого прогона или null, если прогонов не было. */
+    @Query("select max(s.id) from Statistics s")
+    Long findLatestId();
 }
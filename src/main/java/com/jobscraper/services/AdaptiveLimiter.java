@@ -0,0 +1,113 @@
+package com.jobscraper.services;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD-лимит одновременных запросов к одному хосту.
+ * Успешный быстрый ответ добавляет к лимиту 1/limit (примерно +1 за «окно»),
+ * 429/5xx/таймаут делит лимит пополам (не чаще раза в секунду) и может поставить хост на паузу по Retry-After.
+ */
+public class AdaptiveLimiter {
+
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private long pausedUntilNanos;
+    private long lastDecreaseNanos;
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMs) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdMs = latencyThresholdMs;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        long now = System.nanoTime();
+        this.pausedUntilNanos = now;
+        this.lastDecreaseNanos = now - DECREASE_COOLDOWN_NANOS;
+    }
+
+    public void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                long pause = pausedUntilNanos - System.nanoTime();
+                if (pause > 0) {
+                    changed.awaitNanos(pause);
+                } else if (inFlight < (int) limit) {
+                    inFlight++;
+                    return;
+                } else {
+                    changed.await();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Ответ получен; лимит растёт, только если хост отвечает быстрее порога. */
+    public void onSuccess(long latencyMs) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (latencyMs <= latencyThresholdMs) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Хост перегружен: 429, 5xx или таймаут. {@code retryAfter} может быть null. */
+    public void onOverload(Duration retryAfter) {
+        lock.lock();
+        try {
+            inFlight--;
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos >= DECREASE_COOLDOWN_NANOS) {
+                limit = Math.max(minLimit, limit / 2);
+                lastDecreaseNanos = now;
+            }
+            if (retryAfter != null && !retryAfter.isNegative()) {
+                long until = now + retryAfter.toNanos();
+                if (until - pausedUntilNanos > 0) {
+                    pausedUntilNanos = until;
+                }
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Запрос завершён без сигнала о нагрузке (например, 404). */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int currentLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.jobscraper.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.config.ChangesProperties;
+import com.jobscraper.controller.JobChangeView;
+import com.jobscraper.entity.JobChange;
+import com.jobscraper.entity.Statistics;
+import com.jobscraper.repository.StatisticsRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Лента изменений по прогонам: какие вакансии добавлены, изменились (по contentHash) и пропали.
+ * Прогон собирает изменения в {@link Changes} относительно снимка до прогона, а {@link #commit} дописывает их
+ * в {@code job_change} в одной транзакции с его statistics: строки ленты появляются вместе с прогоном или не появляются вовсе.
+ * Прогоны не пересекаются, поэтому id строк растут в порядке прогонов и служат курсором.
+ * Читается страницами ({@link #page}) или потоком SSE ({@link #stream}), который досылает новые строки опросом.
+ */
+@Service
+public class ChangeFeed {
+
+    public static final int DEFAULT_LIMIT = 500;
+    public static final int MAX_LIMIT = 5000;
+
+    /** Вакансия, помеченная удалённой в прогоне. */
+    public record Removed(long itemId, String url, String contentHash) {
+    }
+
+    /** Изменения одного прогона; заполняется потоками конвейера. */
+    public static final class Changes {
+        private final Map<String, Changed> changed = new ConcurrentHashMap<>();
+        private final List<Removed> removed = Collections.synchronizedList(new ArrayList<>());
+        private Long claimsRunId;
+
+        private record Changed(JobChange.Kind kind, String contentHash) {
+        }
+
+        /** ADDED или UPDATED; Item пишется позже, id подставляется по url при записи ленты. */
+        public void changed(String url, JobChange.Kind kind, String contentHash) {
+            changed.put(url, new Changed(kind, contentHash));
+        }
+
+        public void removed(Removed item) {
+            removed.add(item);
+        }
+
+        /** Распределённый прогон: ADDED/UPDATED берутся из решений владельцев в {@code claimed_job}. */
+        public void fromClaims(long runId) {
+            claimsRunId = runId;
+        }
+
+        public int size() {
+            return changed.size() + removed.size();
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatisticsRepository statisticsRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long streamTimeoutMs;
+    // один поток опрашивает ленту, отправка - своей задачей на каждого подписчика: медленный клиент держит только свою
+    private final ScheduledExecutorService streams = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "change-feed-send");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    /** Открытый поток SSE и id последней отправленной ему записи. */
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile long cursor;
+
+        Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+
+    public ChangeFeed(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                      StatisticsRepository statisticsRepository, ObjectMapper objectMapper, ChangesProperties changes) {
+        long pollMs = changes.stream().pollMs();
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.statisticsRepository = statisticsRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = changes.enabled();
+        this.streamTimeoutMs = TimeUnit.MINUTES.toMillis(changes.stream().timeoutMinutes());
+        streams.scheduleWithFixedDelay(this::poll, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /** Сохраняет statistics прогона и его изменения одной транзакцией. */
+    public Statistics commit(Statistics stats, Changes changes) {
+        return transactionTemplate.execute(status -> {
+            Statistics saved = statisticsRepository.save(stats);
+            if (enabled && changes != null) {
+                int appended = append(saved.getId(), changes);
+                if (appended > 0) {
+                    System.out.println("🔁 Лента изменений: прогон " + saved.getId() + ", записей " + appended);
+                }
+            }
+            return saved;
+        });
+    }
+
+    private int append(long statisticsId, Changes changes) {
+        int appended = 0;
+        if (!changes.changed.isEmpty()) {
+            List<String> urls = new ArrayList<>(changes.changed.keySet());
+            urls.sort(Comparator.comparing((String url) -> changes.changed.get(url).kind()).thenComparing(url -> url));
+            String[] kinds = urls.stream().map(url -> changes.changed.get(url).kind().name()).toArray(String[]::new);
+            String[] hashes = urls.stream().map(url -> changes.changed.get(url).contentHash()).toArray(String[]::new);
+            appended += jdbcTemplate.update("insert into job_change (statisticsId, itemId, url, kind, contentHash) "
+                            + "select ?, i.id, c.url, c.kind, c.hash from unnest(?::text[], ?::text[], ?::text[]) "
+                            + "with ordinality c(url, kind, hash, n) "
+                            + "left join (select url, max(id) id from item where url = any(?) group by url) i on i.url = c.url "
+                            + "order by c.n",
+                    statisticsId, urls.toArray(String[]::new), kinds, hashes, urls.toArray(String[]::new));
+        }
+        if (changes.claimsRunId != null) {
+            appended += jdbcTemplate.update("insert into job_change (statisticsId, itemId, url, kind, contentHash) "
+                    + "select ?, i.id, c.url, c.outcome, i.contentHash from claimed_job c left join item i on i.url = c.url "
+                    + "where c.runId = ? and c.outcome in ('ADDED', 'UPDATED') order by c.outcome, c.url",
+                    statisticsId, changes.claimsRunId);
+        }
+        List<Removed> removed;
+        synchronized (changes.removed) {
+            removed = new ArrayList<>(changes.removed);
+        }
+        removed.sort(Comparator.comparing(Removed::url));
+        if (!removed.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(removed.size());
+            for (Removed r : removed) {
+                rows.add(new Object[]{statisticsId, r.itemId(), r.url(), JobChange.Kind.REMOVED.name(), r.contentHash()});
+            }
+            jdbcTemplate.batchUpdate("insert into job_change (statisticsId, itemId, url, kind, contentHash) values (?, ?, ?, ?, ?)", rows);
+            appended += removed.size();
+        }
+        return appended;
+    }
+
+    /**
+     * Пишет {@code {"changes":[...],"nextCursor":N}}. nextCursor есть всегда: id последней отданной записи
+     * или {@code after}, если новых нет, - с ним следующий опрос продолжает ленту.
+     *
+     * @param run только изменения этого прогона (id statistics); null - все
+     */
+    public void page(long after, Long run, int limit, OutputStream out) throws IOException {
+        List<JobChangeView> changes = read(after, run, Math.min(Math.max(limit, 1), MAX_LIMIT));
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("changes");
+            for (JobChangeView change : changes) {
+                json.writeObject(change);
+            }
+            json.writeEndArray();
+            json.writeNumberField("nextCursor", changes.isEmpty() ? after : changes.get(changes.size() - 1).id());
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Поток SSE: сначала всё после {@code after}, потом новые записи по мере появления (опрос раз в {@code poll-ms}).
+     * id события - id записи, так что переподключение с {@code Last-Event-ID} продолжает с того же места.
+     */
+    public SseEmitter stream(long after) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, after);
+        subscribers.add(subscriber);
+        Runnable stop = () -> subscribers.remove(subscriber);
+        emitter.onCompletion(stop);
+        emitter.onTimeout(stop);
+        emitter.onError(e -> stop.run());
+        send(subscriber);
+        return emitter;
+    }
+
+    /** Одна проверка ленты на всех подписчиков; досылка - только тем, кто отстал. */
+    private void poll() {
+        if (subscribers.isEmpty()) return;
+        try {
+            Long latest = jdbcTemplate.queryForObject("select max(id) from job_change", Long.class);
+            if (latest == null) return;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.cursor < latest) send(subscriber);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Ошибка ленты изменений: " + e.getMessage());
+        }
+    }
+
+    /** Досылка подписчику; пока предыдущая не закончилась, новая не ставится. */
+    private void send(Subscriber subscriber) {
+        if (!subscriber.sending.compareAndSet(false, true)) return;
+        senders.execute(() -> {
+            try {
+                List<JobChangeView> changes;
+                do {
+                    changes = read(subscriber.cursor, null, DEFAULT_LIMIT);
+                    for (JobChangeView change : changes) {
+                        subscriber.emitter.send(SseEmitter.event()
+                                .id(Long.toString(change.id()))
+                                .name(change.kind().name())
+                                .data(change, MediaType.APPLICATION_JSON));
+                        subscriber.cursor = change.id();
+                    }
+                } while (changes.size() == DEFAULT_LIMIT);
+            } catch (IOException | IllegalStateException e) {
+                // клиент отключился или поток уже закрыт по таймауту
+                subscribers.remove(subscriber);
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка ленты изменений: " + e.getMessage());
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+            } finally {
+                subscriber.sending.set(false);
+            }
+        });
+    }
+
+    private List<JobChangeView> read(long after, Long run, int limit) {
+        RowMapper<JobChangeView> mapper = (rs, rowNum) -> {
+            long itemId = rs.getLong("itemId");
+            boolean noItem = rs.wasNull();
+            Timestamp runAt = rs.getTimestamp("lastFetch");
+            return new JobChangeView(rs.getLong("id"), rs.getLong("statisticsId"),
+                    runAt != null ? runAt.toLocalDateTime() : null, JobChange.Kind.valueOf(rs.getString("kind")),
+                    noItem ? null : itemId, rs.getString("url"), rs.getString("contentHash"));
+        };
+        String sql = "select c.id, c.statisticsId, c.itemId, c.url, c.kind, c.contentHash, s.lastFetch "
+                + "from job_change c join statistics s on s.id = c.statisticsId where c.id > ?";
+        if (run != null) {
+            return jdbcTemplate.query(sql + " and c.statisticsId = ? order by c.id limit ?", mapper, after, run, limit);
+        }
+        return jdbcTemplate.query(sql + " order by c.id limit ?", mapper, after, limit);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.shutdownNow();
+        senders.shutdownNow();
+    }
+}
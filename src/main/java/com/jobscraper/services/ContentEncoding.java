@@ -0,0 +1,37 @@
+package com.jobscraper.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Распаковка тела ответа по Content-Encoding. java.net.http.HttpClient сам этого не делает.
+ * Brotli в JDK нет, поэтому запрашиваем только gzip и deflate.
+ */
+public final class ContentEncoding {
+
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private ContentEncoding() {
+    }
+
+    public static InputStream decode(InputStream in, String contentEncoding) throws IOException {
+        if (contentEncoding == null) return in;
+        return switch (contentEncoding.trim().toLowerCase()) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(in);
+            case "deflate" -> new InflaterInputStream(in);
+            default -> in;
+        };
+    }
+
+    public static byte[] decode(byte[] body, String contentEncoding) throws IOException {
+        if (contentEncoding == null || contentEncoding.isBlank() || contentEncoding.equalsIgnoreCase("identity")) {
+            return body;
+        }
+        try (InputStream in = decode(new ByteArrayInputStream(body), contentEncoding)) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.jobscraper.services;
+
+/**
+ * Как обходится листинг Getro.
+ */
+public enum CrawlMode {
+    /** Отдельный поток страниц с фильтром {@code job_functions} на каждую индустрию. */
+    PER_INDUSTRY,
+    /**
+     * Один проход по всей коллекции без фильтра с максимальным {@code hitsPerPage};
+     * индустрии берутся из {@code job_functions} вакансии, а для вакансий без них -
+     * из облегчённого прохода по индустриям, который только сопоставляет id.
+     */
+    UNFILTERED
+}
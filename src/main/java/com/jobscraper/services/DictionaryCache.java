@@ -0,0 +1,105 @@
+package com.jobscraper.services;
+
+import com.jobscraper.controller.ApiResponse;
+import com.jobscraper.entity.Organization;
+import com.jobscraper.entity.Tag;
+import com.jobscraper.repository.OrganizationRepository;
+import com.jobscraper.repository.TagRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Интернирующий кэш справочников: одна {@link Organization} на id организации и один {@link Tag} на значение.
+ * Новые записи создаются здесь без обращения к БД; {@link PersistenceSink} вставляет их в той же транзакции,
+ * что и первую ссылающуюся вакансию, после чего все ссылаются на строку по id.
+ */
+@Component
+public class DictionaryCache {
+
+    private final OrganizationRepository organizationRepository;
+    private final TagRepository tagRepository;
+
+    // карты подменяются целиком: воркеры разбора никогда не видят наполовину перечитанный справочник
+    private volatile Map<Long, Organization> organizations = new ConcurrentHashMap<>();
+    private volatile Map<String, Tag> tags = new ConcurrentHashMap<>();
+
+    public DictionaryCache(OrganizationRepository organizationRepository, TagRepository tagRepository) {
+        this.organizationRepository = organizationRepository;
+        this.tagRepository = tagRepository;
+    }
+
+    /** Перечитывает справочники из БД в начале прогона. */
+    public void reload() {
+        Map<Long, Organization> loadedOrganizations = new ConcurrentHashMap<>();
+        for (Organization org : organizationRepository.findAll()) {
+            loadedOrganizations.put(org.getId(), org);
+        }
+        Map<String, Tag> loadedTags = new ConcurrentHashMap<>();
+        for (Tag tag : tagRepository.findAll()) {
+            loadedTags.put(tag.getName(), tag);
+        }
+        organizations = loadedOrganizations;
+        tags = loadedTags;
+    }
+
+    /**
+     * Пачка откатилась: записи, которые она вставила или обновила, снова становятся новыми или изменёнными.
+     * Объекты остаются в кэше: на них уже ссылаются вакансии в очереди, и следующая пачка запишет их заново.
+     */
+    public void rolledBack(Collection<Organization> inserted, Collection<Organization> updated, Collection<Tag> insertedTags) {
+        inserted.forEach(org -> org.setPersisted(false));
+        updated.forEach(org -> org.setChanged(true));
+        insertedTags.forEach(tag -> tag.setId(null));
+    }
+
+    /**
+     * @return общая сущность организации или null, если в ответе нет организации с id
+     */
+    public Organization organization(ApiResponse.Organization dto) {
+        if (dto == null || dto.getId() == 0) return null;
+        String name = Objects.toString(dto.getName(), "");
+        String logoUrl = Objects.toString(dto.getLogoUrl(), "");
+        Organization org = organizations.computeIfAbsent(dto.getId(), id -> {
+            Organization created = new Organization();
+            created.setId(id);
+            created.setName(name);
+            created.setLogoUrl(logoUrl);
+            created.setSlug(dto.getSlug());
+            return created;
+        });
+        if (!name.equals(org.getName()) || !logoUrl.equals(org.getLogoUrl()) || !Objects.equals(dto.getSlug(), org.getSlug())) {
+            synchronized (org) {
+                org.setName(name);
+                org.setLogoUrl(logoUrl);
+                org.setSlug(dto.getSlug());
+                org.setChanged(true);
+            }
+        }
+        return org;
+    }
+
+    /** Организация по id: в записанной пачке у вакансии вместо неё может стоять ссылка-прокси без данных. */
+    public Organization organization(long id) {
+        return organizations.get(id);
+    }
+
+    public Tag tag(String name) {
+        return tags.computeIfAbsent(name, value -> {
+            Tag created = new Tag();
+            created.setName(value);
+            return created;
+        });
+    }
+
+    public int organizationCount() {
+        return organizations.size();
+    }
+
+    public int tagCount() {
+        return tags.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.jobscraper.services;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Полный разбор страницы в Jsoup DOM. Медленнее потокового, но переживает любые изменения вёрстки,
+ * поэтому используется как запасной вариант.
+ */
+public class DomJobPageExtractor implements JobPageExtractor {
+
+    @Override
+    public JobPageDetails extract(byte[] html, String url) {
+        Document doc;
+        try {
+            doc = Jsoup.parse(new ByteArrayInputStream(html), null, url);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // чтение из массива в памяти не падает
+        }
+        return new JobPageDetails(laborFunction(doc), description(doc));
+    }
+
+    private static String laborFunction(Document doc) {
+        Elements laborFunctions = doc.select("div.sc-beqWaB.bpXRKw");
+        return laborFunctions.size() > 1 ? laborFunctions.get(1).text() : null;
+    }
+
+    private static String description(Document doc) {
+        Element descEl = doc.selectFirst("div.sc-beqWaB.fmCCHr");
+        if (descEl == null) return null;
+        String description = descEl.text().trim();
+        return description.isEmpty() ? null : description;
+    }
+}
@@ -0,0 +1,118 @@
+package com.jobscraper.services;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Как исполняются страницы и вакансии.
+ * POOLED - фиксированные пулы платформенных потоков для страниц и этапов конвейера.
+ * VIRTUAL - по виртуальному потоку на задачу (Java 21+), блокирующий I/O не занимает поток ОС;
+ * страниц одновременно не больше {@code pageConcurrency}, как и в POOLED.
+ */
+public enum ExecutionMode {
+    POOLED {
+        @Override
+        ExecutorService newPageExecutor(int pageConcurrency, RunResources resources) {
+            return Executors.newFixedThreadPool(pageConcurrency);
+        }
+
+        @Override
+        ExecutorService newStageExecutor(int workers, RunResources resources) {
+            return Executors.newFixedThreadPool(workers);
+        }
+    },
+    VIRTUAL {
+        @Override
+        ExecutorService newPageExecutor(int pageConcurrency, RunResources resources) {
+            return new VirtualExecutor(newVirtualThreadPerTaskExecutor(), resources, Math.max(1, pageConcurrency));
+        }
+
+        @Override
+        ExecutorService newStageExecutor(int workers, RunResources resources) {
+            return new VirtualExecutor(newVirtualThreadPerTaskExecutor(), resources, 0);
+        }
+    };
+
+    /** Исполнитель страниц; виртуальные потоки считаются в {@code resources}. */
+    abstract ExecutorService newPageExecutor(int pageConcurrency, RunResources resources);
+
+    /** Исполнитель для воркеров одного этапа конвейера. */
+    abstract ExecutorService newStageExecutor(int workers, RunResources resources);
+
+    // Проект собирается под Java 17, поэтому фабрику виртуальных потоков ищем во время выполнения
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Режим VIRTUAL требует Java 21+, текущая версия " + Runtime.version(), e);
+        }
+    }
+
+    /**
+     * Поток на задачу с учётом живых виртуальных потоков в {@link RunResources}. При {@code limit > 0} выполняются
+     * одновременно не больше {@code limit} задач: остальные ждут разрешения в своём виртуальном потоке,
+     * так что {@link #execute} не блокирует отправителя.
+     */
+    private static final class VirtualExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final RunResources resources;
+        private final Semaphore permits; // null - без ограничения
+
+        VirtualExecutor(ExecutorService delegate, RunResources resources, int limit) {
+            this.delegate = delegate;
+            this.resources = resources;
+            this.permits = limit > 0 ? new Semaphore(limit) : null;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (permits == null) {
+                delegate.execute(resources.track(command));
+                return;
+            }
+            delegate.execute(resources.track(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt(); // исполнитель останавливают
+                    return;
+                }
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -1,22 +1,29 @@
 package com.jobscraper.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.config.DistributedProperties;
+import com.jobscraper.config.EnrichmentProperties;
+import com.jobscraper.config.PipelineProperties;
+import com.jobscraper.config.ScraperProperties;
 import com.jobscraper.controller.ApiResponse;
 import com.jobscraper.entity.Item;
+import com.jobscraper.entity.JobChange;
 import com.jobscraper.entity.ListPage;
+import com.jobscraper.entity.PageCheckpoint;
 import com.jobscraper.entity.Statistics;
 import com.jobscraper.repository.ItemRepository;
+import com.jobscraper.repository.ItemSnapshot;
 import com.jobscraper.repository.ListPageRepository;
-import com.jobscraper.repository.StatisticsRepository;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import com.jobscraper.repository.ListPageSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
@@ -25,53 +32,252 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class JobDataService {
 
-    private static final String URL_JOBS = "https://api.getro.com/api/v2/collections/89/search/jobs";
-    private final HttpClient httpClient = HttpClient.newBuilder()
-            .connectTimeout(Duration.ofSeconds(10))
-            .version(HttpClient.Version.HTTP_1_1)
-            .build();
+    private static final Logger log = LoggerFactory.getLogger(JobDataService.class);
+    /** Индустрия вакансий, которых нет ни в одном фильтре {@code job_functions} (только в режиме UNFILTERED). */
+    public static final String UNCLASSIFIED = "Unclassified";
+    private static final List<String> DEFAULT_INDUSTRIES = List.of("Accounting & Finance", "Administration", "Compliance / Regulatory", "Customer Service", "Data Science", "Design", "IT", "Legal", "Marketing & Communications", "Operations", "Other Engineering", "People & HR", "Product", "Quality Assurance", "Sales & Business Development", "Software Engineering");
+    // Адреса вынесены в настройки, чтобы прогон можно было направить на локальную подмену API (нагрузочный стенд)
+    private final String jobsUrl;
+    private final String jobsBaseUrl;
+    private final HttpClient httpClient;
+    // ленивый прокси: кэш страниц вакансий (чтение журнала) открывается при первой странице, прогону листинга он не нужен
+    private final JobPageFetcher jobPageFetcher;
+    private final PersistenceSink persistenceSink;
+    private final RunExport runExport;
+    private final ChangeFeed changeFeed;
+    private volatile ChangeFeed.Changes changes;
+    // BACKGROUND - листинг без страниц вакансий, их дочитывает JobEnrichment после прогона; INLINE - в конвейере
+    private final JobEnrichment jobEnrichment;
+    private final boolean backgroundEnrichment;
+    private final DictionaryCache dictionaryCache;
+    private final SearchCache searchCache;
+    private final ScrapeRuns scrapeRuns;
+    private volatile ScrapeRuns.Run currentRun;
+    // --- Распределённый режим: страницы делятся между узлами через work_unit ---
+    private final WorkQueue workQueue;
+    private final boolean distributed;
+    private final long joinWaitSeconds;
+    private final long pollMs;
+    private final int pageConcurrency;
+    private final Set<Long> activeUnits = ConcurrentHashMap.newKeySet();
 
     private final ListPageRepository listPageRepository;
     private final ItemRepository itemRepository;
-    private final StatisticsRepository statisticsRepository;
+    private final ObjectMapper objectMapper;
+    private final JobStreamReader jobStreamReader;
 
-    private final ExecutorService industryExecutor = Executors.newFixedThreadPool(3); // 3 индустрии одновременно
-    private final ExecutorService jobExecutor = Executors.newCachedThreadPool();      // динамический пул вакансий
-    private final Semaphore httpSemaphore = new Semaphore(20); // не более 20 одновременных запросов
+    private final ExecutionMode executionMode;
+    private final CrawlMode crawlMode;
+    private final int maxHitsPerPage;
+    // Конвейер: fetch (страницы листинга) -> parse (маппинг в Item/ListPage) -> enrich (страница вакансии) -> persist
+    private final ExecutorService pageExecutor; // этап fetch: общая очередь страниц всех индустрий
+    private final Stage<JobTask> parseStage;
+    private final Stage<JobTask> enrichStage;
+    private final AtomicInteger jobsInFlight = new AtomicInteger(0);
+    private final ScheduledExecutorService stageReporter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "stage-reporter");
+        t.setDaemon(true);
+        return t;
+    });
+    private final long stageReportIntervalMs;
+    // Лимиты только на исходящий HTTP (адаптивные, по хосту): разбор, теги и запись в БД ими не ограничены
+    private final OutboundHttp outboundHttp;
+    private final RunResources runResources = new RunResources();
+    private final ScrapeMetrics metrics;
+    private final int jobLogSampleRate;
 
-    private  final List<String> industries = List.of("Accounting & Finance", "Administration", "Compliance / Regulatory", "Customer Service", "Data Science", "Design", "IT", "Legal", "Marketing & Communications", "Operations", "Other Engineering", "People & HR", "Product", "Quality Assurance", "Sales & Business Development", "Software Engineering");
+    private final List<String> industries;
 
     private final AtomicInteger jobsParsedCounter = new AtomicInteger(0);
-    private final List<Item> batchItems = Collections.synchronizedList(new ArrayList<>());
-    private final List<ListPage> batchPages = Collections.synchronizedList(new ArrayList<>());
+
+    // --- Инкрементальный режим: снимок предыдущего прогона и отметки текущего ---
+    private final Map<String, ItemSnapshot> snapshot = new ConcurrentHashMap<>();
+    private final Set<Long> seenItemIds = ConcurrentHashMap.newKeySet();
+    // id записанных ListPage по (url, индустрия): задачи не ходят в БД за каждой страницей
+    private final Map<ListPageKey, Long> listPageIds = new ConcurrentHashMap<>();
+    // results.count каждого потока листинга: задачи берут его отсюда, если их страница ещё не дочитана до count
+    private final Map<String, Integer> listingCounts = new ConcurrentHashMap<>();
+    // --- Дедупликация между индустриями: одна заявка на вакансию (по id) за прогон ---
+    private final Map<String, JobClaim> claims = new ConcurrentHashMap<>();
+    private final AtomicInteger duplicateSightings = new AtomicInteger(0);
+    private final AtomicInteger jobPageLoads = new AtomicInteger(0);
+    private final AtomicInteger listingRequests = new AtomicInteger(0);
+    private final AtomicInteger jobsAdded = new AtomicInteger(0);
+    private final AtomicInteger jobsUpdated = new AtomicInteger(0);
+    private final AtomicInteger jobsUnchanged = new AtomicInteger(0);
+    private final AtomicBoolean runFailed = new AtomicBoolean(false);
+
+    private final boolean incremental;
 
     private boolean withDescriptionAndLaborFunction;
     private volatile boolean stopProcessing;
 
-    public JobDataService(ListPageRepository listPageRepository, ItemRepository itemRepository, StatisticsRepository statisticsRepository) {
+    public JobDataService(ListPageRepository listPageRepository, ItemRepository itemRepository,
+                          ObjectMapper objectMapper, HttpClient httpClient, OutboundHttp outboundHttp,
+                          @Lazy JobPageFetcher jobPageFetcher, PersistenceSink persistenceSink, DictionaryCache dictionaryCache, SearchCache searchCache,
+                          RunExport runExport, JobEnrichment jobEnrichment, ChangeFeed changeFeed,
+                          ScrapeRuns scrapeRuns, WorkQueue workQueue, ScrapeMetrics metrics,
+                          ScraperProperties scraper, PipelineProperties pipeline,
+                          DistributedProperties distributedProperties, EnrichmentProperties enrichment) {
+        ExecutionMode executionMode = scraper.executionMode();
+        int pageConcurrency = scraper.pageConcurrency();
+        boolean distributed = distributedProperties.enabled();
+        CrawlMode crawlMode = scraper.crawl().mode();
         this.listPageRepository = listPageRepository;
         this.itemRepository = itemRepository;
-        this.statisticsRepository = statisticsRepository;
+        this.objectMapper = objectMapper;
+        this.jobStreamReader = new JobStreamReader(objectMapper);
+        this.executionMode = executionMode;
+        this.pageExecutor = executionMode.newPageExecutor(pageConcurrency, runResources);
+        this.parseStage = new Stage<>("parse", pipeline.parse().queueCapacity(), pipeline.parse().workers(),
+                executionMode.newStageExecutor(pipeline.parse().workers(), runResources), this::parseJob);
+        this.enrichStage = new Stage<>("enrich", pipeline.enrich().queueCapacity(), pipeline.enrich().workers(),
+                executionMode.newStageExecutor(pipeline.enrich().workers(), runResources), this::enrichJob);
+        this.parseStage.start();
+        this.enrichStage.start();
+        this.stageReportIntervalMs = pipeline.reportIntervalMs();
+        this.metrics = metrics;
+        this.jobLogSampleRate = Math.max(1, scraper.log().jobSampleRate());
+        this.jobsUrl = scraper.api().jobsUrl();
+        if (distributed && crawlMode == CrawlMode.UNFILTERED) {
+            // проход сопоставления держит отложенные вакансии в памяти одного узла
+            System.err.println("Режим UNFILTERED не делится между узлами, распределённый прогон идёт по индустриям");
+            crawlMode = CrawlMode.PER_INDUSTRY;
+        }
+        this.crawlMode = crawlMode;
+        this.maxHitsPerPage = Math.max(1, scraper.crawl().maxHitsPerPage());
+        this.jobsBaseUrl = scraper.jobsBaseUrl();
+        List<String> industries = scraper.industries().stream().map(String::trim).filter(i -> !i.isEmpty()).toList();
+        this.industries = industries.isEmpty() ? DEFAULT_INDUSTRIES : industries;
+        metrics.gauge("scraper.pipeline.queue.depth", "stage", parseStage.name(), parseStage::depth);
+        metrics.gauge("scraper.pipeline.queue.depth", "stage", enrichStage.name(), enrichStage::depth);
+        metrics.gauge("scraper.pipeline.queue.depth", "stage", "persist", persistenceSink::queueDepth);
+        metrics.gauge("scraper.pipeline.inflight", "stage", "all", jobsInFlight::get);
+        this.httpClient = httpClient;
+        this.outboundHttp = outboundHttp;
+        this.jobPageFetcher = jobPageFetcher;
+        this.persistenceSink = persistenceSink;
+        this.runExport = runExport;
+        this.changeFeed = changeFeed;
+        this.jobEnrichment = jobEnrichment;
+        this.backgroundEnrichment = enrichment.background();
+        this.dictionaryCache = dictionaryCache;
+        this.searchCache = searchCache;
+        this.scrapeRuns = scrapeRuns;
+        this.withDescriptionAndLaborFunction = scraper.run().withDescriptions();
+        this.workQueue = workQueue;
+        this.distributed = distributed;
+        this.joinWaitSeconds = distributedProperties.joinWaitSeconds();
+        this.pollMs = Math.max(10, distributedProperties.pollMs());
+        this.pageConcurrency = Math.max(1, pageConcurrency);
+        this.incremental = scraper.incremental();
+    }
+
+    /** Прогон в заданном режиме вместо {@code scraper.run.with-descriptions} (нагрузочный стенд). */
+    public Statistics fetchAndSaveAllListPages(boolean withDescriptionAndLaborFunction) {
+        this.withDescriptionAndLaborFunction = withDescriptionAndLaborFunction;
+        return fetchAndSaveAllListPages();
+    }
+
+    /**
+     * Прогон под блокировкой: прерванный прогон в том же режиме продолжается с записанных страниц, иначе начинается новый.
+     * В распределённом режиме узел без блокировки присоединяется к прогону координатора и берёт страницы из общей очереди.
+     *
+     * @return статистика прогона или null, если прогон уже идёт (для присоединившегося узла - всегда null)
+     */
+    public Statistics fetchAndSaveAllListPages() {
+        Optional<ScrapeRuns.Run> acquired = scrapeRuns.begin(crawlMode, withDescriptionAndLaborFunction, distributed);
+        if (acquired.isEmpty() && distributed) {
+            acquired = joinDistributedRun();
+        }
+        if (acquired.isEmpty()) {
+            System.out.println("⏳ Прогон уже идёт, запуск пропущен");
+            return null;
+        }
+        try (ScrapeRuns.Run run = acquired.get()) {
+            currentRun = run;
+            return runScrape(run);
+        } finally {
+            currentRun = null;
+            runExport.abort(); // прогон прерван до футера
+        }
     }
 
-    public void fetchAndSaveAllListPages() {
+    /** Ждёт, пока координатор начнёт распределённый прогон и поставит первые страницы в очередь. */
+    private Optional<ScrapeRuns.Run> joinDistributedRun() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(joinWaitSeconds);
+        try {
+            Optional<ScrapeRuns.Run> joined = scrapeRuns.join(crawlMode, withDescriptionAndLaborFunction, Duration.ofSeconds(joinWaitSeconds));
+            if (joined.isEmpty()) return joined;
+            while (!workQueue.seeded(joined.get().id()) && System.nanoTime() < deadline) {
+                Thread.sleep(pollMs);
+            }
+            System.out.println("🔁 Узел " + workQueue.nodeId() + " присоединился к прогону #" + joined.get().id());
+            return joined;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    private Statistics runScrape(ScrapeRuns.Run run) {
         //stopProcessing = false;
-        itemRepository.deleteAll();
-        listPageRepository.deleteAll();
+        if (run.resumed()) {
+            System.out.println("🔁 Продолжаем прерванный прогон #" + run.id() + ": уже записано страниц " + run.donePageCount());
+        }
+        if (incremental || changeFeed.enabled()) {
+            loadSnapshot(); // снимок до прогона: по нему считаются и инкрементальный режим, и лента изменений
+        }
+        if (!incremental && !run.resumed() && run.coordinator() && persistenceSink.database()) {
+            itemRepository.deleteAll();
+            listPageRepository.deleteAll();
+        }
+        changes = new ChangeFeed.Changes();
+        persistenceSink.resetFailures();
+        dictionaryCache.reload();
+        runExport.begin(run.id(), run.resumes(), distributed ? workQueue.nodeId() : null);
         jobsParsedCounter.set(0);
+        runFailed.set(false);
+        claims.clear();
+        listingCounts.clear();
+        duplicateSightings.set(0);
+        jobPageLoads.set(0);
+        listingRequests.set(0);
 
         long start = System.currentTimeMillis();
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
-        for (String industry : industries) {
-            CompletableFuture<Void> f = CompletableFuture.runAsync(() -> fetchIndustry(industry), industryExecutor);
-            futures.add(f);
+        runResources.start();
+        ScheduledFuture<?> report = stageReporter.scheduleAtFixedRate(this::printStageDepths,
+                stageReportIntervalMs, stageReportIntervalMs, TimeUnit.MILLISECONDS);
+        try {
+            if (distributed) {
+                crawlDistributed(run);
+            } else {
+                crawlAllPages();
+            }
+            awaitJobsDrained();
+        } finally {
+            report.cancel(false);
+            runResources.stop();
+        }
+        persistenceSink.flush(); // дописываем хвост последней неполной пачки
+        if (crawlMode == CrawlMode.PER_INDUSTRY) {
+            updateCountJobs();
+        }
+        if (distributed) {
+            runExport.finish(); // индустрии других узлов собирает БД, в выгрузке узла - только его встречи
+            return finishDistributed(run, start);
         }
-        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        mergeJobFunctions();
+        runExport.finish();
+
+        int removed = incremental ? softDeleteVanished() : 0;
+        if (!incremental) recordVanished();
 
         long end = System.currentTimeMillis();
         long duration = end - start;
@@ -79,222 +285,806 @@ public class JobDataService {
         String formatted = formatDuration(duration);
         System.out.println("✅ Все вакансии сохранены за " + formatted);
         System.out.println("✅ Всего обработано вакансий: " + jobsParsedCounter.get());
+        System.out.printf("📊 Режим %s: %.1f вакансий/сек, пик потоков %d (несущих %d), пик виртуальных потоков %d, "
+                        + "пик heap %d КБ, пик RSS %d КБ%n",
+                executionMode, jobsParsedCounter.get() * 1000.0 / Math.max(duration, 1),
+                runResources.peakThreads(), runResources.peakCarrierThreads(), runResources.peakVirtualThreads(),
+                runResources.peakHeapKb(), runResources.peakRssKb());
+        System.out.printf("🔁 Обход %s: запросов листинга %d, уникальных вакансий %d, повторов в других индустриях %d, загрузок страниц вакансий %d%n",
+                crawlMode, listingRequests.get(), claims.size(), duplicateSightings.get(), jobPageLoads.get());
+        System.out.printf("📚 Справочники: организаций %d, тегов %d%n",
+                dictionaryCache.organizationCount(), dictionaryCache.tagCount());
+
+        Statistics stats = newStatistics(jobsParsedCounter.get(), duration);
+        stats.setJobsAdded(jobsAdded.get());
+        stats.setJobsUpdated(jobsUpdated.get());
+        stats.setJobsUnchanged(jobsUnchanged.get());
+        stats.setJobsRemoved(removed);
+        return commit(run, stats, runFailed.get());
+    }
+
+    /**
+     * Конец распределённого прогона на узле. Присоединившийся узел только сообщает о своей части;
+     * координатор собирает индустрии и мягкое удаление по встречам всех узлов и сохраняет статистику прогона.
+     * Пока хоть одна страница не записана или признана FAILED, прогон неполный.
+     */
+    private Statistics finishDistributed(ScrapeRuns.Run run, long start) {
+        long duration = System.currentTimeMillis() - start;
+        System.out.printf("📊 Узел %s: запросов листинга %d, обработано вакансий %d за %s%n", workQueue.nodeId(),
+                listingRequests.get(), jobsParsedCounter.get(), formatDuration(duration));
+        if (!run.coordinator()) return null;
+
+        long id = run.id();
+        boolean partial = workQueue.failedCount(id) > 0 || workQueue.remaining(id) > 0;
+        int merged = workQueue.mergeJobFunctions(id, partial);
+        if (merged > 0) {
+            System.out.println("🔁 Индустрии дописаны у " + merged + " вакансий");
+        }
+        int removed = 0;
+        if (incremental && partial) {
+            System.err.println("Прогон неполный, мягкое удаление пропущено");
+        } else if (incremental) {
+            List<ChangeFeed.Removed> unseen = workQueue.softDeleteUnseen(id);
+            unseen.forEach(changes::removed);
+            removed = unseen.size();
+        }
+        changes.fromClaims(id);
+        int nodes = workQueue.nodeCount(id);
+        int sightings = workQueue.sightingCount(id);
+        System.out.printf("🔁 Распределённый прогон #%d: узлов %d, уникальных вакансий %d, встреч в индустриях %d%n",
+                id, nodes, workQueue.jobCount(id), sightings);
 
+        Map<String, Integer> outcomes = workQueue.outcomes(id);
+        Statistics stats = newStatistics(sightings, duration);
+        stats.setJobsAdded(outcomes.getOrDefault("ADDED", 0));
+        stats.setJobsUpdated(outcomes.getOrDefault("UPDATED", 0));
+        stats.setJobsUnchanged(outcomes.getOrDefault("UNCHANGED", 0));
+        stats.setJobsRemoved(removed);
+        stats.setNodes(nodes);
+        return commit(run, stats, partial);
+    }
+
+    private Statistics newStatistics(int jobsParsed, long duration) {
         Statistics stats = new Statistics();
-        stats.setTotalJobsParsed(jobsParsedCounter.get());
+        stats.setTotalJobsParsed(jobsParsed);
         stats.setTotalTimeMs(duration);
         stats.setLastFetch(LocalDateTime.now());
         stats.setDecriptionsAndLaborFunctions(withDescriptionAndLaborFunction);
-        statisticsRepository.save(stats);
+        stats.setExecutionMode(executionMode.name());
+        stats.setPeakThreads(runResources.peakThreads());
+        stats.setPeakCarrierThreads(runResources.peakCarrierThreads());
+        stats.setPeakVirtualThreads(runResources.peakVirtualThreads());
+        stats.setPeakRssKb(runResources.peakRssKb());
+        stats.setPeakHeapKb(runResources.peakHeapKb());
+        return stats;
     }
 
-    private void fetchIndustry(String industry) {
-        int page = 0;
-        boolean hasMore = true;
-        while (hasMore) {
-            int currentPage = page;
-            try {
-                hasMore = fetchPage(industry, currentPage).join();
-            } catch (Exception e) {
-                System.err.println("Ошибка на странице " + currentPage + " индустрии " + industry);
-                hasMore = false;
+    private Statistics commit(ScrapeRuns.Run run, Statistics stats, boolean failed) {
+        Statistics saved = changeFeed.commit(stats, changes);
+        run.finish(saved, failed);
+        searchCache.runCommitted(saved.getId()); // новая версия данных для API чтения
+        if (withDescriptionAndLaborFunction && backgroundEnrichment && persistenceSink.database()) {
+            jobEnrichment.start(saved.getId());
+        }
+        return saved;
+    }
+
+    private void loadSnapshot() {
+        snapshot.clear();
+        seenItemIds.clear();
+        listPageIds.clear();
+        jobsAdded.set(0);
+        jobsUpdated.set(0);
+        jobsUnchanged.set(0);
+        for (ItemSnapshot s : itemRepository.findAllBy()) {
+            if (s.getUrl() != null) {
+                snapshot.put(s.getUrl(), s);
+            }
+        }
+        if (incremental) {
+            for (ListPageSnapshot s : listPageRepository.findAllBy()) {
+                if (s.getUrl() != null && s.getJobFunction() != null) {
+                    listPageIds.putIfAbsent(new ListPageKey(s.getUrl(), s.getJobFunction()), s.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Дописывает в {@code item.jobFunctions} индустрии, в которых вакансия встретилась после того,
+     * как её Item ушёл в очередь БД. Строки с одинаковым набором индустрий обновляются одним запросом.
+     * В неполном или продолженном прогоне индустрии только добавляются к уже записанным.
+     */
+    private void mergeJobFunctions() {
+        Map<String, List<String>> urlsByFunctions = new HashMap<>();
+        for (JobClaim claim : claims.values()) {
+            Set<String> industries = new HashSet<>(claim.industries);
+            if (partialRun() && claim.written != null) {
+                for (String industry : claim.written.split(", ")) {
+                    if (!industry.isBlank()) industries.add(industry);
+                }
+            }
+            String functions = JobMapper.jobFunctions(industries);
+            if (!functions.equals(claim.written)) {
+                urlsByFunctions.computeIfAbsent(functions, k -> new ArrayList<>()).add(claim.url);
+            }
+        }
+        runExport.jobFunctions(urlsByFunctions);
+        int updated = 0;
+        for (Map.Entry<String, List<String>> e : urlsByFunctions.entrySet()) {
+            List<String> urls = e.getValue();
+            for (int from = 0; from < urls.size(); from += 1000) {
+                updated += itemRepository.updateJobFunctionsByUrlIn(e.getKey(), urls.subList(from, Math.min(urls.size(), from + 1000)));
+            }
+        }
+        if (updated > 0) {
+            System.out.println("🔁 Индустрии дописаны у " + updated + " вакансий");
+        }
+    }
+
+    /**
+     * Помечает удалёнными вакансии, которые не встретились в текущем прогоне.
+     * Если хотя бы одна страница упала или прогон продолжен после прерывания (вакансии записанных страниц
+     * в нём не встречаются), ничего не удаляем.
+     */
+    private int softDeleteVanished() {
+        if (partialRun()) {
+            System.err.println("Прогон неполный, мягкое удаление пропущено");
+            return 0;
+        }
+        List<Long> vanished = new ArrayList<>();
+        for (ItemSnapshot s : snapshot.values()) {
+            if (!s.isDeleted() && !seenItemIds.contains(s.getId())) {
+                vanished.add(s.getId());
+                changes.removed(new ChangeFeed.Removed(s.getId(), s.getUrl(), s.getContentHash()));
             }
-            page++;
         }
+        if (vanished.isEmpty()) return 0;
+        return itemRepository.softDeleteByIdIn(vanished);
     }
 
-    private CompletableFuture<Boolean> fetchPage(String industry, int page) {
-        Map<String, Object> body = Map.of(
-                "hitsPerPage", withDescriptionAndLaborFunction == true ? 10 : 50,
-                "page", page,
-                "query", "",
-                "filters", Map.of("job_functions", new String[]{industry})
-        );
+    /** Без инкрементального режима таблица пересобрана заново: пропавшие - те, чьих url нет среди вакансий прогона. */
+    private void recordVanished() {
+        if (!changeFeed.enabled() || partialRun()) return;
+        Set<String> seen = new HashSet<>();
+        for (JobClaim claim : claims.values()) {
+            seen.add(claim.url);
+        }
+        for (ItemSnapshot s : snapshot.values()) {
+            if (!s.isDeleted() && !seen.contains(s.getUrl())) {
+                changes.removed(new ChangeFeed.Removed(s.getId(), s.getUrl(), s.getContentHash()));
+            }
+        }
+    }
 
+    private boolean partialRun() {
+        ScrapeRuns.Run run = currentRun;
+        return runFailed.get() || (run != null && run.resumed());
+    }
 
+    /** Глубина очередей этапов: видно, какой этап сейчас ограничивает пропускную способность. */
+    public Map<String, Integer> stageDepths() {
+        Map<String, Integer> depths = new LinkedHashMap<>();
+        depths.put(parseStage.name(), parseStage.depth());
+        depths.put(enrichStage.name(), enrichStage.depth());
+        depths.put("persist", persistenceSink.queueDepth());
+        return depths;
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(URL_JOBS))
-                .timeout(Duration.ofSeconds(10))
-                .header("Content-Type", "application/json")
-                .header("Accept", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(new JSONObject(body).toString()))
-                .build();
+    private void printStageDepths() {
+        System.out.printf("📦 Очереди: parse %d/%d, enrich %d/%d, persist %d/%d, в работе %d%n",
+                parseStage.depth(), parseStage.capacity(),
+                enrichStage.depth(), enrichStage.capacity(),
+                persistenceSink.queueDepth(), persistenceSink.queueCapacity(),
+                jobsInFlight.get());
+    }
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenCompose(response -> {
-                    if (response.statusCode() != 200) {
-                        System.err.println("Ошибка запроса: HTTP " + response.statusCode());
-                        return CompletableFuture.completedFuture(false);
-                    }
+    private void awaitJobsDrained() {
+        synchronized (jobsInFlight) {
+            while (jobsInFlight.get() > 0) {
+                try {
+                    jobsInFlight.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
 
-                    String responseBody = response.body(); // <- новое имя
-                    if (responseBody == null || responseBody.isEmpty()) {
-                        System.err.println("Пустой ответ от сервера");
-                        return CompletableFuture.completedFuture(false);
-                    }
+    /**
+     * Планировщик страниц: в общую очередь сначала попадают первые страницы всех потоков листинга,
+     * по их {@code results.count} досыпаются остальные. Свободный воркер берёт следующую
+     * страницу из очереди, поэтому большие индустрии не задерживают весь прогон.
+     */
+    private void crawlAllPages() {
+        if (crawlMode == CrawlMode.UNFILTERED) {
+            crawlUnfiltered();
+            return;
+        }
+        List<Listing> listings = new ArrayList<>();
+        for (String industry : industries) {
+            listings.add(new Listing(industry, hitsPerPage(), true,
+                    (job, count, page) -> submitJob(new JobTask(job, industry, count, page))));
+        }
+        crawl(listings);
+    }
+
+    /**
+     * Режим {@link CrawlMode#UNFILTERED}: вся коллекция одним потоком страниц. Вакансия уходит в конвейер
+     * по разу на каждую свою функцию (дедупликация оставит один Item). Вакансии без {@code job_functions}
+     * ждут прохода сопоставления: те же страницы по индустриям с максимальным {@code hitsPerPage},
+     * из которых берутся только id. Не найденные ни в одной индустрии записываются как {@link #UNCLASSIFIED}.
+     * Число вакансий в индустрии известно только в конце, поэтому {@code list_page.countJobs} обновляется после прогона
+     * (кроме продолженного прогона: вакансий записанных страниц он не видит).
+     * Отмечаются только страницы основного прохода без отложенных вакансий.
+     */
+    private void crawlUnfiltered() {
+        Map<String, ApiResponse.Job> unassigned = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> functionCounts = new ConcurrentHashMap<>();
+        CompletableFuture<Integer> countLater = CompletableFuture.completedFuture(0);
+
+        crawl(List.of(new Listing(null, maxHitsPerPage, true, (job, count, page) -> {
+            List<String> functions = job.getJobFunctions();
+            if (functions == null || functions.isEmpty()) {
+                unassigned.put(JobMapper.dedupKey(job), job);
+                page.incomplete = true; // вакансия уйдёт в конвейер только после прохода сопоставления
+                return;
+            }
+            for (String function : functions) {
+                functionCounts.computeIfAbsent(function, k -> new AtomicInteger()).incrementAndGet();
+                submitJob(new JobTask(job, function, countLater, page));
+            }
+        })));
 
+        if (!unassigned.isEmpty()) {
+            System.out.println("🔎 Без job_functions " + unassigned.size() + " вакансий, сопоставляем по индустриям");
+            Set<String> matched = ConcurrentHashMap.newKeySet();
+            List<Listing> lookups = new ArrayList<>();
+            for (String industry : industries) {
+                lookups.add(new Listing(industry, maxHitsPerPage, false, (job, count, page) -> {
+                    String key = JobMapper.dedupKey(job);
+                    ApiResponse.Job parked = unassigned.get(key);
+                    if (parked == null) return;
+                    matched.add(key);
+                    functionCounts.computeIfAbsent(industry, k -> new AtomicInteger()).incrementAndGet();
+                    submitJob(new JobTask(parked, industry, countLater, page));
+                }));
+            }
+            crawl(lookups);
+            unassigned.forEach((key, job) -> {
+                if (matched.contains(key)) return;
+                functionCounts.computeIfAbsent(UNCLASSIFIED, k -> new AtomicInteger()).incrementAndGet();
+                submitJob(new JobTask(job, UNCLASSIFIED, countLater, null));
+            });
+        }
+        awaitJobsDrained();
+        persistenceSink.flush();
+        if (!partialRun()) {
+            functionCounts.forEach((function, count) -> listPageRepository.updateCountJobsByJobFunction(function, count.get()));
+        }
+    }
+
+    /**
+     * {@code list_page.countJobs} по {@code results.count} индустрий, прочитанных в прогоне. Задача записывает
+     * число, известное на момент разбора: страница, где count идёт после массива jobs, не ждёт своего конца,
+     * иначе воркеры parse ждали бы чтения страниц, а чтение - места в очереди parse.
+     */
+    private void updateCountJobs() {
+        if (!persistenceSink.database()) return;
+        listingCounts.forEach((industry, count) -> listPageRepository.updateCountJobsByJobFunction(industry, count));
+    }
+
+    /**
+     * Распределённый обход: координатор ставит в очередь первые страницы индустрий, дальше каждый узел
+     * забирает страницы из {@code work_unit}, пока в прогоне есть незаписанные. Узел, прочитавший первую
+     * страницу потока, ставит остальные. Пока страница в работе, аренду продлевает фоновая задача.
+     * После упавшей пачки отметки не пишутся, поэтому узел перестаёт брать страницы: его страницы
+     * вернутся в очередь по окончании аренды.
+     */
+    private void crawlDistributed(ScrapeRuns.Run run) {
+        if (run.coordinator()) workQueue.seed(run.id(), industries, hitsPerPage());
+        long renewMs = Math.max(1, TimeUnit.SECONDS.toMillis(workQueue.leaseSeconds()) / 3);
+        ScheduledFuture<?> heartbeat = stageReporter.scheduleAtFixedRate(this::renewLeases, renewMs, renewMs, TimeUnit.MILLISECONDS);
+        Semaphore slots = new Semaphore(pageConcurrency);
+        int claimed = 0;
+        try {
+            while (!persistenceSink.failed()) {
+                slots.acquire();
+                Optional<WorkQueue.Unit> next = workQueue.claim(run.id());
+                if (next.isEmpty()) {
+                    slots.release();
+                    if (workQueue.remaining(run.id()) == 0) break;
+                    Thread.sleep(pollMs); // страницы ещё в работе у других узлов или ждут отметки
+                    continue;
+                }
+                WorkQueue.Unit unit = next.get();
+                String industry = unit.listing();
+                Listing listing = new Listing(industry, unit.hitsPerPage(), true,
+                        (job, count, page) -> submitJob(new JobTask(job, industry, count, page)));
+                claimed++;
+                activeUnits.add(unit.id());
+                pageExecutor.execute(() -> {
                     try {
-                        JSONObject json = new JSONObject(responseBody); // используем responseBody
-                        JSONArray jobs = json.getJSONObject("results").getJSONArray("jobs");
-                        if (jobs.isEmpty()) return CompletableFuture.completedFuture(false);
-
-                        List<CompletableFuture<Void>> jobFutures = new ArrayList<>();
-                        for (int i = 0; i < jobs.length(); i++) {
-                            JSONObject jobJson = jobs.getJSONObject(i);
-                            jobFutures.add(CompletableFuture.runAsync(() -> processJob(jobJson, industry), jobExecutor));
-                        }
-
-                        return CompletableFuture.allOf(jobFutures.toArray(new CompletableFuture[0]))
-                                .thenApply(v -> true);
-                    } catch (JSONException e) {
-                        System.err.println("Ошибка парсинга JSON: " + responseBody);
-                        e.printStackTrace();
-                        return CompletableFuture.completedFuture(false);
+                        fetchUnit(run, listing, unit);
+                    } finally {
+                        slots.release();
                     }
                 });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            slots.acquireUninterruptibly(pageConcurrency); // страницы этого узла дочитаны, их вакансии уже в конвейере
+            heartbeat.cancel(false);
+        }
+        if (persistenceSink.failed()) {
+            System.err.println("Запись пачки упала, узел больше не берёт страницы прогона #" + run.id());
+        }
+        System.out.println("📦 Узел " + workQueue.nodeId() + " взял страниц: " + claimed);
     }
 
-    private void processJob(JSONObject jobJson, String industry) {
-        //if (isLimitReached()) return;
-
-        long start = System.currentTimeMillis();
+    /** Страница из очереди; не загрузившаяся возвращается в очередь ({@link WorkQueue#fail}). */
+    private void fetchUnit(ScrapeRuns.Run run, Listing listing, WorkQueue.Unit unit) {
+        PageProgress progress = pageProgress(listing, unit.page());
+        progress.unit = unit.id();
+        progress.retry = unit.attempts() > 1;
+        progress.retain(); // отметка первой страницы - только после того, как остальные страницы потока в очереди
         try {
-            httpSemaphore.acquire();
-
-            JSONObject orgJson = jobJson.optJSONObject("organization");
+            int count = fetchPage(listing, unit.page(), progress);
+            metrics.industryPage(listing.key());
+            if (unit.page() == 0 && count > 0) {
+                workQueue.addPages(run.id(), listing.key(), listing.hitsPerPage(), 1, pageCount(count, listing.hitsPerPage()));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Ошибка на странице " + unit.page() + " индустрии " + listing.key() + ": " + e.getMessage());
+            progress.incomplete = true;
+        } finally {
+            progress.release();
+        }
+        if (progress.incomplete) {
+            workQueue.fail(unit);
+        }
+    }
 
-            // --- Формируем ListPage ---
-            ListPage listPage = new ListPage();
-            listPage.setJobFunction(industry);
-            listPage.setUrl(jobJson.optString("url", ""));
-            listPage.setCountJobs(jobJson.optJSONObject("results") != null
-                    ? jobJson.getJSONObject("results").optInt("count", 0)
-                    : 0);
-            listPage.setTags(getTags(industry, jobJson));
+    private void renewLeases() {
+        try {
+            workQueue.renew(activeUnits);
+        } catch (RuntimeException e) {
+            // исключение отменило бы периодическую задачу
+            System.err.println("Не удалось продлить аренду страниц: " + e.getMessage());
+        }
+    }
 
-            // --- Формируем Item ---
-            Item item = new Item();
-            item.setPositionName(jobJson.optString("title", ""));
-            String url = "https://jobs.techstars.com/companies/"
-                    + jobJson.getJSONObject("organization").getString("slug")
-                    + "/jobs/"
-                    + jobJson.getString("slug");
-            item.setUrl(url);
-            item.setLogoUrl(orgJson != null ? orgJson.optString("logo_url", "") : "");
-            item.setOrganizationTitle(orgJson != null ? orgJson.optString("name", "") : "");
-            item.setPostedDate(new Date(jobJson.optLong("created_at", 0) * 1000));
-
-            // --- Locations ---
-            JSONArray locations = jobJson.optJSONArray("searchable_locations");
-            if (locations != null) {
-                List<String> locs = new ArrayList<>();
-                for (int i = 0; i < locations.length(); i++) {
-                    locs.add(locations.optString(i, ""));
-                }
-                item.setAddress(String.join(", ", locs));
+    private void crawl(List<Listing> listings) {
+        AtomicInteger pending = new AtomicInteger(1);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        ScrapeRuns.Run run = currentRun;
+        for (Listing listing : listings) {
+            Integer known = listing.checkpointed() ? run.knownCount(listing.key(), listing.hitsPerPage()) : null;
+            if (known == null) {
+                submitPage(listing, 0, true, pending, done);
+                continue;
+            }
+            // продолженный прогон: число страниц из курсора, записанные страницы пропускаем
+            for (int p = 0; p < pageCount(known, listing.hitsPerPage()); p++) {
+                if (!run.isDone(listing.key(), p)) submitPage(listing, p, false, pending, done);
             }
+        }
+        if (pending.decrementAndGet() == 0) done.complete(null);
+        done.join();
+    }
 
-            // --- HTML Parsing (Jsoup) ---
-            if (withDescriptionAndLaborFunction) {
-                Document doc = null;
-                int attempts = 0;
-                while (doc == null && attempts < 3) {
-                    try {
-                        doc = Jsoup.connect(url)
-                                .userAgent("Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7)")
-                                .timeout(15000)
-                                .get();
-                    } catch (IOException e) {
-                        attempts++;
-                        try { Thread.sleep(2000); } catch (InterruptedException ignored) {}
-                    }
-                }
-                if (doc != null) {
-                    Elements laborFunctions = doc.select("div.sc-beqWaB.bpXRKw");
-                    item.setLaborFunction(laborFunctions.size() > 1 ? laborFunctions.get(1).text() : industry);
-
-                    if (jobJson.optBoolean("has_description", false)) {
-                        Element descEl = doc.selectFirst("div.sc-beqWaB.fmCCHr");
-                        if (descEl != null) {
-                            String description = descEl.text().trim();
-                            item.setDescription(description.isEmpty() ? null : description);
-                        }
+    /** @param fanOut первая страница потока: по её {@code results.count} ставятся в очередь остальные */
+    private void submitPage(Listing listing, int page, boolean fanOut, AtomicInteger pending, CompletableFuture<Void> done) {
+        pending.incrementAndGet();
+        pageExecutor.execute(() -> {
+            String label = listing.key();
+            try {
+                int count = fetchPage(listing, page, pageProgress(listing, page));
+                metrics.industryPage(label);
+                if (fanOut && count > 0) {
+                    ScrapeRuns.Run run = currentRun;
+                    if (listing.checkpointed()) run.saveCursor(label, listing.hitsPerPage(), count);
+                    for (int p = 1; p < pageCount(count, listing.hitsPerPage()); p++) {
+                        if (!listing.checkpointed() || !run.isDone(label, p)) submitPage(listing, p, false, pending, done);
                     }
                 }
+            } catch (Exception e) {
+                System.err.println("Ошибка на странице " + page + " индустрии " + label);
+                runFailed.set(true);
+            } finally {
+                if (pending.decrementAndGet() == 0) done.complete(null);
             }
+        });
+    }
+
+    private PageProgress pageProgress(Listing listing, int page) {
+        return new PageProgress(listing.checkpointed() ? currentRun.checkpoint(listing.key(), page) : null);
+    }
+
+    /** Страница вакансии в конвейере держит листинг, поэтому страницы листинга тогда мельче. */
+    private int hitsPerPage() {
+        return withDescriptionAndLaborFunction && !backgroundEnrichment ? 10 : 50;
+    }
+
+    private static int pageCount(int count, int hitsPerPage) {
+        return (count + hitsPerPage - 1) / hitsPerPage;
+    }
+
+    /**
+     * Поток страниц листинга: фильтр по индустрии (null - без фильтра), размер страницы и получатель вакансий.
+     * Для {@code checkpointed} сохраняются курсор и отметки записанных страниц.
+     */
+    private record Listing(String industry, int hitsPerPage, boolean checkpointed, ListingSink sink) {
+
+        /** Имя потока в курсорах, отметках и метриках. */
+        String key() {
+            return industry != null ? industry : "all";
+        }
+    }
+
+    @FunctionalInterface
+    private interface ListingSink {
+        /**
+         * @param count {@code results.count} потока; завершается, когда поле разобрано или страница дочитана
+         * @param page  страница, с которой пришла вакансия; передаётся в {@link JobTask}
+         */
+        void accept(ApiResponse.Job job, CompletableFuture<Integer> count, PageProgress page);
+    }
 
-            // --- Batch Save ---
-            synchronized(this) {
-                batchItems.add(item);
-                batchPages.add(listPage);
+    /**
+     * Страница листинга в конвейере. Отметка о ней уходит в очередь писателя, когда страница дочитана
+     * и все её вакансии покинули конвейер, то есть после их записей.
+     */
+    private final class PageProgress {
+        final PageCheckpoint checkpoint; // null - страница не отмечается
+        final AtomicInteger pending = new AtomicInteger(1); // 1 - чтение самой страницы
+        volatile boolean incomplete;
+        volatile Long unit; // work_unit распределённого прогона: аренда продлевается, пока страница в конвейере
+        volatile boolean retry; // страницу уже брал другой узел: часть её записей может быть в БД
 
-                if(batchItems.size() >= 50) {
-                    itemRepository.saveAll(batchItems);
-                    batchItems.clear();
-                    listPageRepository.saveAll(batchPages);
-                    batchPages.clear();
+        PageProgress(PageCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+        void retain() {
+            pending.incrementAndGet();
+        }
+
+        void release() {
+            if (pending.decrementAndGet() != 0) return;
+            if (unit != null) activeUnits.remove(unit); // отметка уйдёт в ближайшую пачку, задолго до конца аренды
+            if (incomplete || checkpoint == null) return;
+            try {
+                persistenceSink.add(checkpoint);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Этап fetch: загружает страницу листинга и отдаёт вакансии получателю потока (обычно на этап parse).
+     * Тело разбирается потоком под разрешением лимита хоста, вакансии страницы копятся в списке и уходят дальше
+     * уже после того, как разрешение отпущено: если очередь parse полна, ждёт этот поток (и следующий запрос
+     * листинга), а не лимит хоста, через который идут и страницы вакансий этапа enrich.
+     * Возвращает {@code results.count} потока (0 при ошибке или пустом ответе).
+     */
+    private int fetchPage(Listing listing, int page, PageProgress progress) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("hitsPerPage", listing.hitsPerPage());
+        body.put("page", page);
+        body.put("query", "");
+        if (listing.industry() != null) {
+            body.put("filters", Map.of("job_functions", new String[]{listing.industry()}));
+        }
+        listingRequests.incrementAndGet();
+
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder()
+                    .uri(URI.create(jobsUrl))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .header("Accept", "application/json")
+                    .header("Accept-Encoding", ContentEncoding.ACCEPT_ENCODING)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+
+        // results.count может прийти после массива jobs: future завершается, как только поле разобрано, задачи его не ждут
+        CompletableFuture<Integer> pageCount = new CompletableFuture<>();
+        List<ApiResponse.Job> jobs = new ArrayList<>(listing.hitsPerPage());
+        int count = 0;
+        try {
+            String host = request.uri().getHost();
+            // разрешение лимита держится до конца чтения тела: страница листинга приходит потоком
+            OutboundHttp.Outcome<Integer> response = outboundHttp.execute(host, () -> {
+                HttpResponse<InputStream> r = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+                if (r.statusCode() != 200) {
+                    r.body().close(); // закрываем тело, чтобы соединение вернулось в пул
+                    return OutboundHttp.Outcome.failed(r.statusCode(), r.headers().firstValue("Retry-After").orElse(null));
                 }
+                return OutboundHttp.Outcome.ok(r.statusCode(), r);
+            }, r -> {
+                CountingInputStream raw = new CountingInputStream(r.body());
+                long parseStart = System.nanoTime();
+                try (InputStream in = ContentEncoding.decode(raw, r.headers().firstValue("Content-Encoding").orElse(null))) {
+                    return jobStreamReader.read(in, jobs::add, c -> {
+                        if (c > 0) listingCounts.put(listing.key(), c);
+                        pageCount.complete(c);
+                    });
+                } finally {
+                    metrics.listingParse(System.nanoTime() - parseStart);
+                    metrics.httpBytes(host, raw.count());
+                }
+            });
+            if (response.status() != 200) {
+                System.err.println("Ошибка запроса: HTTP " + response.status());
+                runFailed.set(true);
+                progress.incomplete = true;
+                return 0;
+            }
+            count = response.body();
+            pageCount.complete(count);
+            // разрешение уже отпущено: ожидание места в очереди parse не держит лимит хоста
+            for (ApiResponse.Job job : jobs) {
+                listing.sink().accept(job, pageCount, progress);
             }
-        } catch (JSONException e) {
-            e.printStackTrace();
+        } catch (IOException e) {
+            System.err.println("Ошибка запроса или парсинга JSON: " + e.getMessage());
+            runFailed.set(true);
+            progress.incomplete = true;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            runFailed.set(true);
+            progress.incomplete = true;
         } finally {
-            httpSemaphore.release();
-            int processed = jobsParsedCounter.incrementAndGet();
-            if (processed >= 1000) {
-                // stopProcessing = true; // ставим флаг остановки
+            pageCount.complete(count);
+            progress.release();
+        }
+        return count;
+    }
+
+    private void submitJob(JobTask task) {
+        jobsInFlight.incrementAndGet();
+        if (task.page != null) task.page.retain();
+        metrics.industryJob(task.industry);
+        try {
+            parseStage.submit(task);
+        } catch (InterruptedException e) {
+            finishJob(task);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Прервано при постановке вакансии в очередь");
+        }
+    }
+
+    /** Вакансия покинула конвейер (записана в очередь БД или отброшена). */
+    private void finishJob(JobTask task) {
+        int processed = jobsParsedCounter.incrementAndGet();
+        long duration = System.currentTimeMillis() - task.start;
+        metrics.jobDuration(duration);
+        if (processed % jobLogSampleRate == 0 && log.isDebugEnabled()) {
+            log.debug("{}{}", formatDuration(duration), Objects.toString(task.job.getTitle(), ""));
+        }
+        if (task.page != null) task.page.release(); // до jobsInFlight: отметка встаёт в очередь раньше финального flush
+        if (jobsInFlight.decrementAndGet() == 0) {
+            synchronized (jobsInFlight) {
+                jobsInFlight.notifyAll();
             }
+        }
+    }
+
+    /**
+     * {@code results.count} без ожидания: со страницы задачи, если он уже прочитан, иначе с другой страницы
+     * того же потока или 0. Итоговое значение дописывает {@link #updateCountJobs()}.
+     */
+    private int industryCount(JobTask task) {
+        Integer count = task.industryCount.getNow(null);
+        if (count == null) count = listingCounts.get(task.industry);
+        return count != null ? count : 0;
+    }
+
+    private record ListPageKey(String url, String jobFunction) {
+    }
 
-            long end = System.currentTimeMillis();
-            long duration = end - start;
-            String formatted = formatDuration(duration);
-            System.out.println(formatted + jobJson.optString("title", ""));
+    /**
+     * Заявка на вакансию в текущем прогоне. Первый, кто её создал, грузит страницу и пишет Item;
+     * остальные индустрии только добавляют себя в {@code industries}.
+     */
+    private static final class JobClaim {
+        final String url;
+        final Set<String> industries = ConcurrentHashMap.newKeySet();
+        volatile String written; // item.jobFunctions в БД (или в очереди на запись)
+
+        JobClaim(String url) {
+            this.url = url;
         }
     }
 
-    private String getTags(String industry, JSONObject jobJson) {
-        List<String> tags = new ArrayList<>();
+    /** Состояние вакансии между этапами конвейера. */
+    private static final class JobTask {
+        final ApiResponse.Job job;
+        final String industry;
+        final CompletableFuture<Integer> industryCount;
+        final PageProgress page;
+        final long start = System.currentTimeMillis();
+        String url;
+        Item item;
 
-        // Добавляем индустрию
-        if (industry != null && !industry.isBlank()) {
-            tags.add(industry);
+        JobTask(ApiResponse.Job job, String industry, CompletableFuture<Integer> industryCount, PageProgress page) {
+            this.job = job;
+            this.industry = industry;
+            this.industryCount = industryCount;
+            this.page = page;
         }
+    }
+
+    /**
+     * Этап parse: маппинг DTO в Item/ListPage, теги, сверка со снимком.
+     * Дальше вакансия уходит на enrich (режим описаний INLINE) или сразу в очередь БД.
+     */
+    private void parseJob(JobTask task) throws InterruptedException {
+        //if (isLimitReached()) return;
+        boolean handedOff = false;
+        try {
+            ApiResponse.Job job = task.job;
+            String industry = task.industry;
+            String url = JobMapper.jobUrl(jobsBaseUrl, job);
+            if (url == null) {
+                System.err.println("Вакансия без slug пропущена: " + job.getTitle());
+                return;
+            }
+            String contentHash = JobMapper.contentHash(objectMapper, job);
 
-        // Тэги организации
-        JSONObject orgJson = jobJson.optJSONObject("organization");
-        if (orgJson != null) {
-            JSONArray industryTags = orgJson.optJSONArray("industryTags");
-            if (industryTags != null) {
-                for (int i = 0; i < industryTags.length(); i++) {
-                    tags.add(industryTags.optString(i, ""));
+            ItemSnapshot known = incremental ? snapshot.get(url) : null;
+
+            // --- Дедупликация: первый, кто встретил вакансию в прогоне, отвечает за Item и страницу вакансии;
+            // остальные индустрии пишут только свой ListPage и добавляются в item.jobFunctions в конце прогона
+            String key = JobMapper.dedupKey(job);
+            JobClaim fresh = new JobClaim(url);
+            JobClaim claim = claims.putIfAbsent(key, fresh);
+            boolean ownsItem = claim == null;
+            if (ownsItem) claim = fresh;
+            boolean retry = false;
+            if (distributed) {
+                // владелец - страница, где вакансия встретилась первой, на любом из узлов
+                PageCheckpoint page = task.page.checkpoint;
+                ownsItem = workQueue.claimJob(currentRun.id(), key, url, industry, page.getListing(), page.getPage(),
+                        outcome(known, contentHash));
+                retry = task.page.retry;
+                if (retry) {
+                    // узел, потерявший аренду страницы, мог успеть записать Item после снимка: сверяемся с БД
+                    known = itemRepository.findFirstSnapshotByUrl(url).orElse(known);
                 }
             }
+            if (ownsItem) {
+                metrics.uniqueJob();
+            } else {
+                duplicateSightings.incrementAndGet();
+                metrics.duplicateJob();
+            }
+            claim.industries.add(industry);
 
-            int headCount = orgJson.optInt("headCount", 0);
-            switch (headCount) {
-                case 1 -> tags.add("1-10 employees");
-                case 2 -> tags.add("11-50 employees");
-                case 3 -> tags.add("51-200 employees");
-                case 4 -> tags.add("201-1000 employees");
-                case 5 -> tags.add("1000-5000 employees");
-                case 6 -> tags.add("5001+ employees");
+            // --- Инкрементальный режим (и повтор страницы): сверяем со снимком ---
+            Item item = new Item();
+            ListPage listPage = new ListPage();
+            if (incremental || retry) {
+                if (known != null) {
+                    seenItemIds.add(known.getId());
+                    if (ownsItem) claim.written = known.getJobFunctions();
+                    boolean unchanged = unchanged(known, contentHash);
+                    if (unchanged && ownsItem && withDescriptionAndLaborFunction && !backgroundEnrichment
+                            && !Objects.equals(known.getEnrichedHash(), known.getContentHash())) {
+                        // содержимое то же, но страница вакансии для него не дочитана (прогон без описаний
+                        // или фоновый режим): INLINE дочитывает её, в ленту изменений вакансия не попадает
+                        item.setId(known.getId());
+                        jobsUnchanged.incrementAndGet();
+                    } else if (unchanged) {
+                        if (ownsItem) jobsUnchanged.incrementAndGet();
+                        if (listedIn(known, industry)) return;
+                        // вакансия не менялась, но в этой индустрии ещё не записана (новая индустрия
+                        // или страница, до которой не дошёл прерванный прогон): пишем только ListPage
+                        ownsItem = false;
+                    } else if (ownsItem) {
+                        // обновление по id: поля страницы вакансии писатель возьмёт из записанной строки
+                        item.setId(known.getId());
+                        jobsUpdated.incrementAndGet();
+                    }
+                } else if (ownsItem) {
+                    jobsAdded.incrementAndGet();
+                }
+                String pageUrl = Objects.toString(job.getUrl(), "");
+                if (!pageUrl.isEmpty()) {
+                    listPage.setId(retry
+                            ? listPageRepository.findFirstSnapshotByUrlAndJobFunction(pageUrl, industry)
+                                    .map(ListPageSnapshot::getId).orElse(null)
+                            : listPageIds.get(new ListPageKey(pageUrl, industry)));
+                }
             }
 
-            String stage = formatTag(orgJson.optString("stage", ""));
-            if (!stage.isBlank()) {
-                tags.add(stage);
+            // --- Формируем ListPage ---
+            JobMapper.fillListPage(listPage, job, industry, industryCount(task), dictionaryCache::tag);
+            persistenceSink.add(listPage);
+
+            if (!ownsItem) {
+                return;
             }
-        }
+            if (!distributed) {
+                // распределённый прогон берёт ленту из решений владельцев в claimed_job
+                JobChange.Kind change = changeKind(incremental ? known : snapshot.get(url), contentHash);
+                if (change != null) changes.changed(url, change, contentHash);
+            }
+
+            // --- Формируем Item ---
+            JobMapper.fillItem(item, job, url, contentHash, dictionaryCache::organization, dictionaryCache::tag);
+            claim.written = JobMapper.jobFunctions(claim.industries);
+            item.setJobFunctions(claim.written);
 
-        // Тэг уровня вакансии
-        String seniority = jobJson.optString("seniority", "");
-        if (!seniority.isBlank()) {
-            tags.add(seniority);
+            if (withDescriptionAndLaborFunction && !backgroundEnrichment) {
+                task.url = url;
+                task.item = item;
+                enrichStage.submit(task);
+                handedOff = true;
+                return;
+            }
+
+            // --- Запись: в очередь единственного писателя, без ожидания БД ---
+            persistenceSink.add(item);
+        } finally {
+            if (!handedOff) finishJob(task);
         }
+    }
 
-        return String.join(", ", tags);
+    /** Что владелец сделает с Item по снимку: для статистики распределённого прогона. */
+    private String outcome(ItemSnapshot known, String contentHash) {
+        if (!incremental) return null;
+        if (known == null) return "ADDED";
+        return unchanged(known, contentHash) ? "UNCHANGED" : "UPDATED";
+    }
+
+    /** Запись ленты изменений по снимку до прогона; null - вакансия не менялась. */
+    private static JobChange.Kind changeKind(ItemSnapshot previous, String contentHash) {
+        if (previous == null) return JobChange.Kind.ADDED;
+        return unchanged(previous, contentHash) ? null : JobChange.Kind.UPDATED;
+    }
+
+    private static boolean unchanged(ItemSnapshot known, String contentHash) {
+        return !known.isDeleted() && contentHash.equals(known.getContentHash());
+    }
+
+    private static boolean listedIn(ItemSnapshot known, String industry) {
+        String functions = known.getJobFunctions();
+        return functions != null && Arrays.asList(functions.split(", ")).contains(industry);
+    }
+
+    /** Этап enrich: страница вакансии (условный GET + извлечение функции и описания). */
+    private void enrichJob(JobTask task) throws InterruptedException {
+        try {
+            JobPageDetails details = null;
+            try {
+                jobPageLoads.incrementAndGet();
+                metrics.jobPageLoad();
+                details = jobPageFetcher.load(task.url);
+            } catch (IOException e) {
+                System.err.println("Не удалось загрузить " + task.url + ": " + e.getMessage());
+            }
+            Item item = task.item;
+            if (details != null) {
+                item.setLaborFunction(details.laborFunction() != null ? details.laborFunction() : task.industry);
+                if (task.job.isHasDescription() && details.description() != null) {
+                    item.setDescription(details.description());
+                }
+                item.setEnrichedAt(LocalDateTime.now());
+                item.setEnrichedHash(item.getContentHash());
+            }
+            persistenceSink.add(item);
+        } finally {
+            finishJob(task);
+        }
     }
 
     public static String formatTag(String tag) {
@@ -317,12 +1107,15 @@ public class JobDataService {
         return result;
     }
 
+    @PreDestroy
     public void shutdownExecutors() {
-        industryExecutor.shutdown();
-        jobExecutor.shutdown();
+        pageExecutor.shutdown();
+        parseStage.shutdown();
+        enrichStage.shutdown();
+        stageReporter.shutdown();
     }
 
-    public String formatDuration(long millis) {
+    public static String formatDuration(long millis) {
         long minutes = TimeUnit.MILLISECONDS.toMinutes(millis);
         long seconds = TimeUnit.MILLISECONDS.toSeconds(millis) % 60;
         long ms = millis % 1000;
@@ -336,31 +1129,6 @@ public class JobDataService {
         }
     }
 
-    public void welcome(){
-        Scanner scanner = new Scanner(System.in);
-        System.out.println();
-        String l1 = "1. with description and labor function";
-        String l2 = "2. without description and labor function";
-
-        System.out.println(l1);
-        System.out.println(l2);
-        System.out.print("Select mode (1 or 2): ");
-
-        int choice = scanner.nextInt();
-        System.out.println(choice);
-
-        if (choice == 1) {
-            withDescriptionAndLaborFunction = true;
-            fetchAndSaveAllListPages();
-        } else if (choice == 2) {
-            withDescriptionAndLaborFunction = false;
-            fetchAndSaveAllListPages();
-        } else {
-            System.out.println("Invalid input. Please enter 1 or 2.");
-            welcome();
-        }
-    }
-
     private boolean isLimitReached() {
         return stopProcessing || jobsParsedCounter.get() >= 1000;
     }
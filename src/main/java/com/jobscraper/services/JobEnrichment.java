@@ -0,0 +1,256 @@
+package com.jobscraper.services;
+
+import com.jobscraper.config.EnrichmentProperties;
+import com.jobscraper.config.ScraperProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Фоновая дозагрузка страниц вакансий (laborFunction и description) после прогона листинга.
+ * Листинг в этом режиме идёт полными страницами и записывает вакансии без страниц вакансий, так что они
+ * доступны поиску сразу после прогона, а дозагрузка догоняет следом.
+ * Очередь - сама таблица item в порядке приоритета: сначала ни разу не дозагруженные вакансии
+ * (по частичному индексу, новые {@code postedDate} первыми), потом устаревшие - листинг изменился после
+ * дозагрузки или она старше {@code refresh-days}. Проход ограничен числом страниц и временем;
+ * что не успели, берёт следующий проход. Вакансия записывается, только если её contentHash не сменился за это время.
+ */
+@Component
+public class JobEnrichment {
+
+    private static final List<String> STATEMENTS = List.of(
+            "create index if not exists idx_item_enrich_pending on item (postedDate desc nulls last, id) "
+                    + "where enrichedAt is null and deleted = false",
+            // вакансии, дочитанные до появления enrichedAt, не грузим заново
+            "update item set enrichedAt = localtimestamp, enrichedHash = contentHash "
+                    + "where enrichedAt is null and (laborFunction is not null or description is not null)");
+
+    private record Candidate(long id, String url, String jobFunctions, String contentHash) {
+    }
+
+    private record Enriched(Candidate candidate, JobPageDetails details) {
+    }
+
+    // время прохода вышло до загрузки: не ошибка, вакансия остаётся в очереди следующему проходу
+    private static final Enriched SKIPPED = new Enriched(null, null);
+
+    /**
+     * Итог прохода.
+     *
+     * @param failed  страница не загрузилась (сеть)
+     * @param skipped не загружались: время прохода вышло, их возьмёт следующий проход
+     */
+    public record Pass(int enriched, int unavailable, int failed, int skipped, long durationMs, boolean budgetSpent) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobPageFetcher jobPageFetcher;
+    private final ScrapeMetrics metrics;
+    private final SearchCache searchCache;
+    private final ExecutorService passExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "job-enrichment");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService workers;
+    private final int maxPages;
+    private final long maxSeconds;
+    private final int batchSize;
+    private final long refreshDays;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile CompletableFuture<Pass> current = CompletableFuture.completedFuture(null);
+
+    public JobEnrichment(JdbcTemplate jdbcTemplate, @Lazy JobPageFetcher jobPageFetcher, ScrapeMetrics metrics, SearchCache searchCache,
+                         ScraperProperties scraper, EnrichmentProperties enrichment) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobPageFetcher = jobPageFetcher;
+        this.metrics = metrics;
+        this.searchCache = searchCache;
+        // проход идёт после записи прогона и в замер ресурсов прогона не входит
+        this.workers = scraper.executionMode().newStageExecutor(enrichment.workers(), new RunResources());
+        this.maxPages = enrichment.maxPages();
+        this.maxSeconds = enrichment.maxSeconds();
+        this.batchSize = Math.max(1, enrichment.batchSize());
+        this.refreshDays = enrichment.refreshDays();
+    }
+
+    @PostConstruct
+    public void applySchema() {
+        for (String statement : STATEMENTS) {
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    /**
+     * Запускает проход в фоне, если он ещё не идёт.
+     *
+     * @param statisticsId прогон, после которого идёт проход: ему записывается {@code jobsEnriched}
+     * @return false, если прошлый проход ещё не закончился
+     */
+    public boolean start(Long statisticsId) {
+        if (!running.compareAndSet(false, true)) {
+            System.out.println("⏳ Дозагрузка страниц вакансий ещё идёт, новый проход пропущен");
+            return false;
+        }
+        CompletableFuture<Pass> pass = new CompletableFuture<>();
+        current = pass;
+        passExecutor.execute(() -> {
+            try {
+                pass.complete(run(statisticsId));
+            } catch (RuntimeException e) {
+                System.err.println("Дозагрузка страниц вакансий прервана: " + e.getMessage());
+                pass.completeExceptionally(e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /** Ждёт окончания текущего прохода (нагрузочный стенд); null, если прохода не было или он упал. */
+    public Pass await(Duration timeout) throws InterruptedException {
+        try {
+            return current.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    public boolean running() {
+        return running.get();
+    }
+
+    private Pass run(Long statisticsId) {
+        long start = System.currentTimeMillis();
+        long deadline = start + TimeUnit.SECONDS.toMillis(maxSeconds);
+        Set<Long> tried = new HashSet<>(); // упавшие из-за сети в этом проходе повторно не берём
+        int enriched = 0;
+        int unavailable = 0;
+        int failed = 0;
+        int skipped = 0;
+        boolean budgetSpent = false;
+        while (true) {
+            int limit = Math.min(batchSize, maxPages - tried.size());
+            if (limit <= 0 || System.currentTimeMillis() >= deadline) {
+                budgetSpent = true;
+                break;
+            }
+            List<Candidate> batch = candidates(limit, tried);
+            if (batch.isEmpty()) break;
+
+            List<CompletableFuture<Enriched>> loads = new ArrayList<>(batch.size());
+            for (Candidate candidate : batch) {
+                if (System.currentTimeMillis() >= deadline) {
+                    skipped += batch.size() - loads.size(); // остаток пачки не отправляем
+                    break;
+                }
+                tried.add(candidate.id());
+                loads.add(CompletableFuture.supplyAsync(() -> load(candidate, deadline), workers));
+            }
+            List<Object[]> updates = new ArrayList<>(batch.size());
+            LocalDateTime now = LocalDateTime.now();
+            for (CompletableFuture<Enriched> load : loads) {
+                Enriched result = load.join();
+                if (result == SKIPPED) {
+                    skipped++;
+                    continue;
+                }
+                if (result == null) {
+                    failed++;
+                    continue;
+                }
+                Candidate candidate = result.candidate();
+                JobPageDetails details = result.details();
+                if (details == null) {
+                    unavailable++; // страница недоступна: до следующей проверки по refresh-days не берём
+                } else {
+                    enriched++;
+                }
+                String laborFunction = details == null ? null
+                        : details.laborFunction() != null ? details.laborFunction() : firstFunction(candidate.jobFunctions());
+                updates.add(new Object[]{laborFunction, details != null ? details.description() : null,
+                        Timestamp.valueOf(now), candidate.contentHash(), candidate.id(), candidate.contentHash()});
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate("update item set laborFunction = coalesce(?, laborFunction), "
+                        + "description = coalesce(?, description), enrichedAt = ?, enrichedHash = ? "
+                        + "where id = ? and contentHash = ?", updates);
+                searchCache.dataChanged();
+            }
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        budgetSpent |= skipped > 0;
+        Pass pass = new Pass(enriched, unavailable, failed, skipped, duration, budgetSpent);
+        if (statisticsId != null) {
+            jdbcTemplate.update("update statistics set jobsEnriched = ? where id = ?", enriched, statisticsId);
+        }
+        System.out.printf("🔎 Дозагрузка страниц вакансий%s: %d дочитано, %d недоступно, %d ошибок, %d отложено за %s%n",
+                budgetSpent ? " (бюджет прохода исчерпан, остаток - в следующем)" : "",
+                enriched, unavailable, failed, skipped, JobDataService.formatDuration(duration));
+        return pass;
+    }
+
+    /** Следующая пачка по приоритету: ни разу не дозагруженные, затем устаревшие. */
+    private List<Candidate> candidates(int limit, Set<Long> tried) {
+        Long[] skip = tried.toArray(Long[]::new);
+        List<Candidate> batch = new ArrayList<>(jdbcTemplate.query("select id, url, jobFunctions, contentHash from item "
+                        + "where enrichedAt is null and deleted = false and url is not null and not (id = any(?)) "
+                        + "order by postedDate desc nulls last, id limit ?",
+                (rs, i) -> new Candidate(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)), skip, limit));
+        if (batch.size() < limit) {
+            batch.addAll(jdbcTemplate.query("select id, url, jobFunctions, contentHash from item "
+                            + "where enrichedAt is not null and deleted = false and url is not null and not (id = any(?)) "
+                            + "and (enrichedHash is distinct from contentHash or enrichedAt < localtimestamp - ? * interval '1 day') "
+                            + "order by postedDate desc nulls last, id limit ?",
+                    (rs, i) -> new Candidate(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)),
+                    skip, refreshDays, limit - batch.size()));
+        }
+        return batch;
+    }
+
+    /** @return null, если страница не загрузилась (сеть); {@link #SKIPPED}, если время прохода вышло до загрузки */
+    private Enriched load(Candidate candidate, long deadline) {
+        if (System.currentTimeMillis() >= deadline) return SKIPPED;
+        try {
+            metrics.jobPageLoad();
+            return new Enriched(candidate, jobPageFetcher.load(candidate.url()));
+        } catch (IOException e) {
+            System.err.println("Не удалось загрузить " + candidate.url() + ": " + e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /** Без laborFunction на странице - первая индустрия вакансии, как при загрузке в конвейере. */
+    private static String firstFunction(String jobFunctions) {
+        if (jobFunctions == null || jobFunctions.isBlank()) return null;
+        return jobFunctions.split(", ")[0];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        passExecutor.shutdownNow();
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,161 @@
+package com.jobscraper.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.controller.ApiResponse;
+import com.jobscraper.entity.Item;
+import com.jobscraper.entity.ListPage;
+import com.jobscraper.entity.Organization;
+import com.jobscraper.entity.Tag;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Маппинг вакансии из API Getro в {@link Item} / {@link ListPage}. Без состояния и без I/O,
+ * поэтому его можно мерить и вызывать откуда угодно.
+ */
+public final class JobMapper {
+
+    public static final String DEFAULT_JOBS_BASE_URL = "https://jobs.techstars.com";
+
+    private JobMapper() {
+    }
+
+    /** Адрес страницы вакансии на jobs.techstars.com или null, если в ответе нет slug-ов. */
+    public static String jobUrl(ApiResponse.Job job) {
+        return jobUrl(DEFAULT_JOBS_BASE_URL, job);
+    }
+
+    /** То же относительно {@code baseUrl} (например, локальной подмены сайта). */
+    public static String jobUrl(String baseUrl, ApiResponse.Job job) {
+        ApiResponse.Organization org = job.getOrganization();
+        if (org == null || org.getSlug() == null || job.getSlug() == null) return null;
+        return baseUrl + "/companies/"
+                + org.getSlug()
+                + "/jobs/"
+                + job.getSlug();
+    }
+
+    /**
+     * Ключ вакансии для дедупликации между индустриями: id из API, а без него - пара slug-ов.
+     */
+    public static String dedupKey(ApiResponse.Job job) {
+        if (job.getId() != 0) return "id:" + job.getId();
+        ApiResponse.Organization org = job.getOrganization();
+        return "slug:" + (org != null ? org.getSlug() : "") + "/" + job.getSlug();
+    }
+
+    /** Индустрии вакансии в стабильном порядке, как они хранятся в {@code item.jobFunctions}. */
+    public static String jobFunctions(Collection<String> industries) {
+        return industries.stream().sorted().collect(Collectors.joining(", "));
+    }
+
+    /**
+     * SHA-256 от вакансии из листинга (сериализация DTO стабильна по порядку полей).
+     * Только содержимое листинга: от режима описаний хэш не зависит.
+     */
+    public static String contentHash(ObjectMapper objectMapper, ApiResponse.Job job) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(objectMapper.writeValueAsBytes(job));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param tags интернирование тегов (обычно {@link DictionaryCache#tag})
+     */
+    public static void fillListPage(ListPage listPage, ApiResponse.Job job, String industry, int industryCount,
+                                    Function<String, Tag> tags) {
+        listPage.setJobFunction(industry);
+        listPage.setUrl(Objects.toString(job.getUrl(), ""));
+        listPage.setCountJobs(industryCount);
+        List<Tag> resolved = new ArrayList<>();
+        for (String value : tags(industry, job)) {
+            resolved.add(tags.apply(value));
+        }
+        listPage.setTags(resolved);
+    }
+
+    /**
+     * @param organizations интернирование организаций (обычно {@link DictionaryCache#organization})
+     * @param tags          интернирование тегов (обычно {@link DictionaryCache#tag})
+     */
+    public static void fillItem(Item item, ApiResponse.Job job, String url, String contentHash,
+                                Function<ApiResponse.Organization, Organization> organizations,
+                                Function<String, Tag> tags) {
+        item.setPositionName(Objects.toString(job.getTitle(), ""));
+        item.setUrl(url);
+        item.setContentHash(contentHash);
+        item.setDeleted(false);
+        item.setOrganization(organizations.apply(job.getOrganization()));
+        List<Tag> resolved = new ArrayList<>();
+        for (String value : tags(null, job)) {
+            resolved.add(tags.apply(value));
+        }
+        item.setTags(resolved);
+        item.setPostedDate(new Date(job.getCreatedAt() * 1000));
+
+        // --- Locations ---
+        List<String> locations = job.getSearchableLocations();
+        if (locations != null) {
+            item.setAddress(String.join(", ", locations));
+        }
+    }
+
+    /** Значения тегов страницы листинга по порядку, без повторов. */
+    public static List<String> tags(String industry, ApiResponse.Job job) {
+        Set<String> tags = new LinkedHashSet<>();
+
+        // Добавляем индустрию
+        if (industry != null && !industry.isBlank()) {
+            tags.add(industry);
+        }
+
+        // Тэги организации
+        ApiResponse.Organization org = job.getOrganization();
+        if (org != null) {
+            if (org.getIndustryTags() != null) {
+                for (String tag : org.getIndustryTags()) {
+                    if (tag != null && !tag.isBlank()) tags.add(tag);
+                }
+            }
+
+            int headCount = org.getHeadCount();
+            switch (headCount) {
+                case 1 -> tags.add("1-10 employees");
+                case 2 -> tags.add("11-50 employees");
+                case 3 -> tags.add("51-200 employees");
+                case 4 -> tags.add("201-1000 employees");
+                case 5 -> tags.add("1000-5000 employees");
+                case 6 -> tags.add("5001+ employees");
+            }
+
+            String stage = JobDataService.formatTag(org.getStage());
+            if (!stage.isBlank()) {
+                tags.add(stage);
+            }
+        }
+
+        // Тэг уровня вакансии
+        String seniority = job.getSeniority();
+        if (seniority != null && !seniority.isBlank()) {
+            tags.add(seniority);
+        }
+
+        return new ArrayList<>(tags);
+    }
+}
@@ -0,0 +1,231 @@
+package com.jobscraper.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.config.PageCacheProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Дисковый кэш страниц вакансий в /tmp/job-scraper.
+ * HTML лежит в blobs/ под своим SHA-256 (одинаковые страницы хранятся один раз),
+ * индекс URL -> (хэш, валидаторы, время загрузки) держится в памяти в LRU-порядке
+ * и дублируется журналом index.jsonl, который переигрывается при старте.
+ * Когда объём blob-ов превышает бюджет, вытесняются давно не использованные URL.
+ */
+@Component
+public class JobPageCache {
+
+    public record Entry(String url, String bodyHash, String etag, String lastModified, long fetchedAt, long size) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path blobs;
+    private final Path journal;
+    private final long maxBytes;
+    private final Duration ttl;
+
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(1024, 0.75f, true);
+    private final Map<String, Integer> blobRefs = new HashMap<>();
+    private long totalBytes;
+    private FileChannel journalChannel;
+
+    public JobPageCache(ObjectMapper objectMapper, PageCacheProperties cache) {
+        this.objectMapper = objectMapper;
+        this.enabled = cache.enabled();
+        this.blobs = cache.dir().resolve("blobs");
+        this.journal = cache.dir().resolve("index.jsonl");
+        this.maxBytes = cache.maxBytes();
+        this.ttl = Duration.ofHours(cache.ttlHours());
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (!enabled) return;
+        Files.createDirectories(blobs);
+        replayJournal();
+        evictOverBudget(false);
+        compactJournal();
+        journalChannel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        System.out.println("🗄 Кэш страниц: " + index.size() + " URL, " + totalBytes / 1024 + " КБ");
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (journalChannel != null) {
+            journalChannel.close();
+            journalChannel = null;
+            compactJournal();
+        }
+    }
+
+    public synchronized Entry get(String url) {
+        return enabled ? index.get(url) : null;
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() - entry.fetchedAt() < ttl.toMillis();
+    }
+
+    /** Новое тело страницы (ответ 200). */
+    public Entry put(String url, byte[] body, String bodyHash, String etag, String lastModified) throws IOException {
+        Entry entry = new Entry(url, bodyHash, etag, lastModified, System.currentTimeMillis(), body.length);
+        if (!enabled) return entry;
+
+        Path blob = blobPath(bodyHash);
+        if (!Files.exists(blob)) {
+            Files.createDirectories(blob.getParent());
+            Path tmp = blob.resolveSibling(bodyHash + "." + UUID.randomUUID() + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer buf = ByteBuffer.wrap(body);
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            Files.move(tmp, blob, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        synchronized (this) {
+            Entry old = index.put(url, entry);
+            if (old != null) unref(old, !old.bodyHash().equals(bodyHash));
+            ref(entry);
+            append(entry);
+            evictOverBudget(true);
+        }
+        return entry;
+    }
+
+    /** Сервер ответил 304: тело то же, обновляем время и валидаторы. */
+    public Entry revalidated(Entry entry, String etag, String lastModified) {
+        Entry fresh = new Entry(entry.url(), entry.bodyHash(),
+                etag != null ? etag : entry.etag(),
+                lastModified != null ? lastModified : entry.lastModified(),
+                System.currentTimeMillis(), entry.size());
+        if (!enabled) return fresh;
+        synchronized (this) {
+            if (index.replace(entry.url(), fresh) != null) {
+                append(fresh);
+            }
+        }
+        return fresh;
+    }
+
+    /** Тело страницы из blob-а или null, если его уже нет на диске. */
+    public byte[] read(Entry entry) {
+        if (!enabled) return null;
+        try (FileChannel ch = FileChannel.open(blobPath(entry.bodyHash()), StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) ch.size());
+            while (buf.hasRemaining() && ch.read(buf) >= 0) {
+            }
+            return buf.array();
+        } catch (IOException e) {
+            remove(entry.url());
+            return null;
+        }
+    }
+
+    public synchronized void remove(String url) {
+        Entry old = index.remove(url);
+        if (old != null) {
+            unref(old, true);
+            append(tombstone(url));
+        }
+    }
+
+    private void ref(Entry entry) {
+        if (blobRefs.merge(entry.bodyHash(), 1, Integer::sum) == 1) {
+            totalBytes += entry.size();
+        }
+    }
+
+    private void unref(Entry entry, boolean deleteBlob) {
+        Integer left = blobRefs.computeIfPresent(entry.bodyHash(), (h, n) -> n > 1 ? n - 1 : null);
+        if (left == null) {
+            totalBytes -= entry.size();
+            if (deleteBlob) {
+                try {
+                    Files.deleteIfExists(blobPath(entry.bodyHash()));
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void evictOverBudget(boolean journaled) {
+        Iterator<Entry> eldest = index.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            eldest.remove();
+            unref(entry, true);
+            if (journaled) append(tombstone(entry.url()));
+        }
+    }
+
+    private void replayJournal() throws IOException {
+        if (!Files.exists(journal)) return;
+        Map<String, Entry> replayed = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    Entry entry = objectMapper.readValue(line, Entry.class);
+                    replayed.remove(entry.url());
+                    if (entry.bodyHash() != null) replayed.put(entry.url(), entry);
+                } catch (IOException e) {
+                    // недописанная строка после падения - пропускаем
+                }
+            }
+        }
+        for (Entry entry : replayed.values()) {
+            if (Files.exists(blobPath(entry.bodyHash()))) {
+                index.put(entry.url(), entry);
+                ref(entry);
+            }
+        }
+    }
+
+    private void compactJournal() throws IOException {
+        Path tmp = journal.resolveSibling("index.jsonl.tmp");
+        try (var writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Entry entry : index.values()) {
+                writer.write(objectMapper.writeValueAsString(entry));
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, journal, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void append(Entry entry) {
+        if (journalChannel == null) return;
+        try {
+            ByteBuffer line = ByteBuffer.wrap((objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) journalChannel.write(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Entry tombstone(String url) {
+        return new Entry(url, null, null, null, 0, 0);
+    }
+
+    private Path blobPath(String hash) {
+        return blobs.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+}
@@ -0,0 +1,7 @@
+package com.jobscraper.services;
+
+/**
+ * То, что нам нужно со страницы вакансии.
+ */
+public record JobPageDetails(String laborFunction, String description) {
+}
@@ -0,0 +1,13 @@
+package com.jobscraper.services;
+
+/**
+ * Достаёт функцию и описание из HTML страницы вакансии.
+ */
+public interface JobPageExtractor {
+
+    /**
+     * @return данные страницы или null, если ожидаемой разметки на странице нет
+     *         (тогда вызывающий код может попробовать другой экстрактор)
+     */
+    JobPageDetails extract(byte[] html, String url);
+}
@@ -0,0 +1,137 @@
+package com.jobscraper.services;
+
+import com.jobscraper.config.PageCacheProperties;
+import com.jobscraper.config.ScraperProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Загрузка страниц вакансий jobs.techstars.com через общий HttpClient и дисковый {@link JobPageCache}.
+ * Свежая (по TTL) страница из кэша не требует сети вообще; устаревшая перепроверяется
+ * условным GET (If-None-Match / If-Modified-Since), и на 304 ничего не скачивается.
+ * Результат разбора запоминается по хэшу тела, так что одинаковый HTML разбирается один раз.
+ */
+@Component
+public class JobPageFetcher {
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7)";
+
+    private final HttpClient httpClient;
+    private final OutboundHttp outboundHttp;
+    private final JobPageCache cache;
+    private final ScrapeMetrics metrics;
+    private final Map<String, JobPageDetails> extracted;
+    private final JobPageExtractor extractor;
+    private final JobPageExtractor fallbackExtractor = new DomJobPageExtractor();
+
+    public JobPageFetcher(HttpClient httpClient, OutboundHttp outboundHttp, JobPageCache cache, ScrapeMetrics metrics,
+                          PageCacheProperties cacheProperties, ScraperProperties scraper) {
+        int memoEntries = cacheProperties.memoEntries();
+        this.httpClient = httpClient;
+        this.outboundHttp = outboundHttp;
+        this.cache = cache;
+        this.metrics = metrics;
+        this.extractor = scraper.extractor() == ScraperProperties.Extractor.DOM ? fallbackExtractor : new StreamingJobPageExtractor();
+        this.extracted = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, JobPageDetails> eldest) {
+                return size() > memoEntries;
+            }
+        });
+    }
+
+    /**
+     * @return данные страницы или null, если страница недоступна
+     */
+    public JobPageDetails load(String url) throws IOException, InterruptedException {
+        JobPageCache.Entry cached = cache.get(url);
+        if (cached != null && cache.isFresh(cached)) {
+            JobPageDetails details = fromCache(cached);
+            if (details != null) return details;
+            cached = null; // blob пропал с диска
+        }
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(15))
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html")
+                .header("Accept-Encoding", ContentEncoding.ACCEPT_ENCODING);
+        if (cached != null) {
+            if (cached.etag() != null) builder.header("If-None-Match", cached.etag());
+            if (cached.lastModified() != null) builder.header("If-Modified-Since", cached.lastModified());
+        }
+        HttpRequest request = builder.GET().build();
+
+        OutboundHttp.Outcome<HttpResponse<byte[]>> outcome = outboundHttp.execute(request.uri().getHost(), () -> {
+            HttpResponse<byte[]> r = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (r.statusCode() == 200 || r.statusCode() == 304) {
+                return OutboundHttp.Outcome.ok(r.statusCode(), r);
+            }
+            return OutboundHttp.Outcome.failed(r.statusCode(), r.headers().firstValue("Retry-After").orElse(null));
+        });
+
+        if (outcome.status() == 304 && cached != null) {
+            HttpResponse<byte[]> response = outcome.body();
+            JobPageCache.Entry fresh = cache.revalidated(cached,
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null));
+            JobPageDetails details = fromCache(fresh);
+            if (details != null) return details;
+            cache.remove(url);
+            return load(url); // blob пропал - запрашиваем без валидаторов
+        }
+        if (outcome.status() != 200) {
+            System.err.println("Страница вакансии недоступна: HTTP " + outcome.status() + " " + url);
+            return null;
+        }
+
+        HttpResponse<byte[]> response = outcome.body();
+        metrics.httpBytes(request.uri().getHost(), response.body().length);
+        byte[] html = ContentEncoding.decode(response.body(), response.headers().firstValue("Content-Encoding").orElse(null));
+        String bodyHash = sha256(html);
+        cache.put(url, html, bodyHash,
+                response.headers().firstValue("ETag").orElse(null),
+                response.headers().firstValue("Last-Modified").orElse(null));
+        return extract(bodyHash, html, url);
+    }
+
+    private JobPageDetails fromCache(JobPageCache.Entry entry) {
+        JobPageDetails details = extracted.get(entry.bodyHash());
+        if (details != null) return details;
+        byte[] html = cache.read(entry);
+        return html != null ? extract(entry.bodyHash(), html, entry.url()) : null;
+    }
+
+    private JobPageDetails extract(String bodyHash, byte[] html, String url) {
+        JobPageDetails details = extracted.get(bodyHash);
+        if (details != null) return details;
+        long start = System.nanoTime();
+        details = extractor.extract(html, url);
+        if (details == null && extractor != fallbackExtractor) {
+            details = fallbackExtractor.extract(html, url); // вёрстка изменилась - полный DOM
+        }
+        metrics.jobPageExtract(System.nanoTime() - start);
+        extracted.put(bodyHash, details);
+        return details;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.jobscraper.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Фильтры {@code /jobs}. Все поля необязательные, теги объединяются по И.
+ *
+ * @param text     полнотекстовый запрос по названию и описанию (синтаксис websearch_to_tsquery)
+ * @param location подстрока адреса без учёта регистра
+ * @param after    keyset-курсор: отдаются вакансии строго после этой пары (postedDate, id); вакансии без даты - последние
+ */
+public record JobSearchQuery(String text,
+                             String laborFunction,
+                             List<String> tags,
+                             String location,
+                             Long organizationId,
+                             String organization,
+                             LocalDate postedFrom,
+                             LocalDate postedTo,
+                             Cursor after,
+                             int limit,
+                             boolean withDescription) {
+
+    /**
+     * Каноничная форма запроса, она же ключ кэша: пустые фильтры - null, пробелы схлопнуты,
+     * теги без повторов и отсортированы (порядок для И не важен), адрес в нижнем регистре (ilike), limit в допустимых границах.
+     */
+    public JobSearchQuery normalized(int maxLimit) {
+        String address = clean(location);
+        return new JobSearchQuery(clean(text), clean(laborFunction),
+                tags == null ? List.of() : tags.stream().map(JobSearchQuery::clean).filter(Objects::nonNull).distinct().sorted().toList(),
+                address != null ? address.toLowerCase(Locale.ROOT) : null,
+                organizationId, clean(organization), postedFrom, postedTo, after,
+                Math.min(Math.max(limit, 1), maxLimit), withDescription);
+    }
+
+    private static String clean(String value) {
+        if (value == null) return null;
+        String collapsed = value.trim().replaceAll("\\s+", " ");
+        return collapsed.isEmpty() ? null : collapsed;
+    }
+
+    /**
+     * Позиция в выдаче; наружу отдаётся непрозрачной строкой base64url от "postedDate:id".
+     * У вакансии без даты postedDate - null, в строке пусто (":id").
+     */
+    public record Cursor(LocalDate postedDate, long id) {
+
+        public String encode() {
+            String raw = (postedDate != null ? postedDate.toString() : "") + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @return курсор или null для пустой строки
+         * @throws IllegalArgumentException если курсор повреждён
+         */
+        public static Cursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) return null;
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int colon = raw.lastIndexOf(':');
+                String date = raw.substring(0, colon);
+                return new Cursor(date.isEmpty() ? null : LocalDate.parse(date), Long.parseLong(raw.substring(colon + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Некорректный курсор: " + cursor, e);
+            }
+        }
+    }
+}
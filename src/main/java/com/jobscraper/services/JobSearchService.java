@@ -0,0 +1,248 @@
+package com.jobscraper.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.config.SearchProperties;
+import com.jobscraper.controller.JobFacets;
+import com.jobscraper.controller.JobView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Поиск по сохранённым вакансиям для {@code /jobs}. Порядок - (postedDate, id) по убыванию,
+ * страницы листаются keyset-курсором по этой паре (индекс idx_item_posted_keyset), без OFFSET.
+ * Строки читаются курсором JDBC порциями по {@code scraper.search.fetch-size} и сразу пишутся в ответ,
+ * так что память сервера не зависит от размера выдачи.
+ * Небольшие страницы и фасеты отдаются из {@link SearchCache}: пока нет нового прогона, повторный запрос не идёт в БД.
+ */
+@Service
+public class JobSearchService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 10_000;
+    public static final int DEFAULT_FACET_SIZE = 50;
+    public static final int MAX_FACET_SIZE = 1000;
+
+    // postedDate desc в PostgreSQL ставит NULL первыми, а сравнение строк с NULL не работает;
+    // с -infinity вакансии без даты идут последними, и курсор (ключ, id) однозначен
+    static final String POSTED_KEY = "coalesce(i.postedDate, '-infinity'::date)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final ObjectMapper objectMapper;
+    private final SearchCache searchCache;
+
+    public JobSearchService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                            SearchCache searchCache, SearchProperties search) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(search.fetchSize()); // курсор PostgreSQL работает только внутри транзакции
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.searchCache = searchCache;
+    }
+
+    /**
+     * Пишет в {@code out} объект {@code {"jobs":[...],"nextCursor":"..."}}; nextCursor есть, только если страница полная.
+     */
+    public void search(JobSearchQuery query, OutputStream out) throws IOException {
+        JobSearchQuery normalized = query.normalized(MAX_LIMIT);
+        if (searchCache.cacheable(normalized)) {
+            out.write(searchCache.get("jobs", normalized, () -> {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+                try {
+                    writeJobs(normalized, buffer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return buffer.toByteArray();
+            }));
+        } else {
+            writeJobs(normalized, out);
+        }
+    }
+
+    /** Фасеты по тем же фильтрам, что и {@link #search}; курсор и limit не учитываются. */
+    public byte[] facets(JobSearchQuery query, int size) {
+        JobSearchQuery normalized = query.normalized(MAX_LIMIT);
+        JobSearchQuery key = new JobSearchQuery(normalized.text(), normalized.laborFunction(), normalized.tags(),
+                normalized.location(), normalized.organizationId(), normalized.organization(),
+                normalized.postedFrom(), normalized.postedTo(), null, Math.min(Math.max(size, 1), MAX_FACET_SIZE), false);
+        return searchCache.get("facets", key, () -> {
+            try {
+                return objectMapper.writeValueAsBytes(readOnly.execute(status -> countFacets(key)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private JobFacets countFacets(JobSearchQuery query) {
+        Sql total = new Sql();
+        total.append("select count(*) from item i left join organization o on o.id = i.organizationId");
+        where(total, query);
+
+        Sql functions = new Sql();
+        functions.append("select i.laborFunction as value, count(*) as cnt from item i left join organization o on o.id = i.organizationId");
+        where(functions, query);
+        functions.append(" and i.laborFunction is not null group by i.laborFunction order by cnt desc, value limit ?", query.limit());
+
+        Sql tags = new Sql();
+        tags.append("select t.name as value, count(*) as cnt from item i left join organization o on o.id = i.organizationId"
+                + " join item_tag ft on ft.itemId = i.id join tag t on t.id = ft.tagId");
+        where(tags, query);
+        tags.append(" group by t.name order by cnt desc, value limit ?", query.limit());
+
+        RowMapper<JobFacets.Bucket> bucket = (rs, rowNum) -> new JobFacets.Bucket(rs.getString("value"), rs.getLong("cnt"));
+        Long count = jdbcTemplate.queryForObject(total.text.toString(), Long.class, total.params.toArray());
+        return new JobFacets(count != null ? count : 0,
+                jdbcTemplate.query(functions.text.toString(), bucket, functions.params.toArray()),
+                jdbcTemplate.query(tags.text.toString(), bucket, tags.params.toArray()));
+    }
+
+    private void writeJobs(JobSearchQuery query, OutputStream out) throws IOException {
+        int limit = query.limit();
+        Sql sql = select(query.withDescription());
+        where(sql, query);
+        sql.append(" order by " + POSTED_KEY + " desc, i.id desc limit ?", limit);
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("jobs");
+            JobView[] last = new JobView[1];
+            int[] rows = new int[1];
+            RowMapper<JobView> mapper = rowMapper(query.withDescription());
+            try {
+                readOnly.executeWithoutResult(status -> jdbcTemplate.query(sql.text.toString(), rs -> {
+                    JobView job = mapper.mapRow(rs, rows[0]++);
+                    try {
+                        json.writeObject(job);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    last[0] = job;
+                }, sql.params.toArray()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause(); // клиент закрыл соединение
+            }
+            json.writeEndArray();
+            if (rows[0] == limit && last[0] != null) {
+                json.writeStringField("nextCursor", new JobSearchQuery.Cursor(last[0].postedDate(), last[0].id()).encode());
+            }
+            json.writeEndObject();
+        }
+    }
+
+    public Optional<JobView> findById(long id) {
+        Sql sql = select(true);
+        sql.append(" where i.id = ? and i.deleted = false", id);
+        return readOnly.execute(status -> jdbcTemplate.query(sql.text.toString(), rowMapper(true), sql.params.toArray()))
+                .stream().findFirst();
+    }
+
+    private Sql select(boolean withDescription) {
+        Sql sql = new Sql();
+        sql.append("select i.id, i.positionName, i.url, i.laborFunction, i.jobFunctions, i.address, i.postedDate,"
+                + " o.id as orgId, o.name as orgName, o.logoUrl as orgLogoUrl,"
+                + " array(select t.name from item_tag it join tag t on t.id = it.tagId"
+                + " where it.itemId = i.id order by it.position) as tags");
+        if (withDescription) sql.append(", i.description");
+        sql.append(" from item i left join organization o on o.id = i.organizationId");
+        return sql;
+    }
+
+    private void where(Sql sql, JobSearchQuery query) {
+        sql.append(" where i.deleted = false");
+        if (hasText(query.text())) {
+            sql.append(" and i.searchVector @@ websearch_to_tsquery('english', ?)", query.text());
+        }
+        if (hasText(query.laborFunction())) {
+            sql.append(" and i.laborFunction = ?", query.laborFunction());
+        }
+        if (query.tags() != null) {
+            for (String tag : query.tags()) {
+                if (!hasText(tag)) continue;
+                sql.append(" and exists (select 1 from item_tag it join tag t on t.id = it.tagId"
+                        + " where it.itemId = i.id and t.name = ?)", tag);
+            }
+        }
+        if (hasText(query.location())) {
+            sql.append(" and i.address ilike ? escape '\\'", "%" + escapeLike(query.location()) + "%");
+        }
+        if (query.organizationId() != null) {
+            sql.append(" and i.organizationId = ?", query.organizationId());
+        }
+        if (hasText(query.organization())) {
+            sql.append(" and o.name = ?", query.organization());
+        }
+        if (query.postedFrom() != null) {
+            sql.append(" and i.postedDate >= ?", Date.valueOf(query.postedFrom()));
+        }
+        if (query.postedTo() != null) {
+            sql.append(" and i.postedDate <= ?", Date.valueOf(query.postedTo()));
+        }
+        if (query.after() != null) {
+            JobSearchQuery.Cursor after = query.after();
+            if (after.postedDate() != null) {
+                sql.append(" and (" + POSTED_KEY + ", i.id) < (?, ?)", Date.valueOf(after.postedDate()), after.id());
+            } else {
+                sql.append(" and (" + POSTED_KEY + ", i.id) < ('-infinity'::date, ?)", after.id());
+            }
+        }
+    }
+
+    private RowMapper<JobView> rowMapper(boolean withDescription) {
+        return (rs, rowNum) -> {
+            long orgId = rs.getLong("orgId");
+            JobView.Organization organization = rs.wasNull() ? null
+                    : new JobView.Organization(orgId, rs.getString("orgName"), rs.getString("orgLogoUrl"));
+            Date posted = rs.getDate("postedDate");
+            String jobFunctions = rs.getString("jobFunctions");
+            Array tags = rs.getArray("tags");
+            return new JobView(
+                    rs.getLong("id"),
+                    rs.getString("positionName"),
+                    rs.getString("url"),
+                    rs.getString("laborFunction"),
+                    jobFunctions == null || jobFunctions.isBlank() ? List.of() : Arrays.asList(jobFunctions.split(", ")),
+                    rs.getString("address"),
+                    posted != null ? posted.toLocalDate() : null,
+                    organization,
+                    tags != null ? Arrays.asList((String[]) tags.getArray()) : List.of(),
+                    withDescription ? rs.getString("description") : null);
+        };
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /** Текст запроса и параметры в порядке плейсхолдеров. */
+    private static final class Sql {
+        final StringBuilder text = new StringBuilder(512);
+        final List<Object> params = new ArrayList<>();
+
+        void append(String fragment, Object... values) {
+            text.append(fragment);
+            params.addAll(Arrays.asList(values));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.jobscraper.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.controller.ApiResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Потоковый разбор ответа Getro {@code /search/jobs}: вакансии из {@code results.jobs}
+ * отдаются по одной в {@code sink}, без буферизации всего тела и без DOM.
+ */
+public class JobStreamReader {
+
+    private final ObjectMapper objectMapper;
+
+    public JobStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return {@code results.count} из ответа (0, если поля нет)
+     * @throws IOException при пустом или некорректном теле
+     */
+    public int read(InputStream in, Consumer<ApiResponse.Job> sink) throws IOException {
+        return read(in, sink, count -> {
+        });
+    }
+
+    /**
+     * @param onCount получает {@code results.count}, как только поле разобрано: оно может прийти и до, и после массива jobs
+     * @return {@code results.count} из ответа (0, если поля нет)
+     * @throws IOException при пустом или некорректном теле
+     */
+    public int read(InputStream in, Consumer<ApiResponse.Job> sink, IntConsumer onCount) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                throw new IOException("Пустой ответ от сервера");
+            }
+            if (first != JsonToken.START_OBJECT) {
+                throw new IOException("Ожидался JSON-объект, получено " + first);
+            }
+
+            int count = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("results".equals(field) && value == JsonToken.START_OBJECT) {
+                    count = readResults(parser, sink, onCount);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return count;
+        }
+    }
+
+    private int readResults(JsonParser parser, Consumer<ApiResponse.Job> sink, IntConsumer onCount) throws IOException {
+        int count = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("count".equals(field)) {
+                count = parser.getValueAsInt(0);
+                onCount.accept(count);
+            } else if ("jobs".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    sink.accept(objectMapper.readValue(parser, ApiResponse.Job.class));
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return count;
+    }
+}
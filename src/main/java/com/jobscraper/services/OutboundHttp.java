@@ -0,0 +1,183 @@
+package com.jobscraper.services;
+
+import com.jobscraper.config.HttpProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Единая точка для всех исходящих HTTP-запросов: адаптивный лимит на хост
+ * и повторы с экспоненциальной задержкой (full jitter) и учётом Retry-After.
+ */
+@Component
+public class OutboundHttp {
+
+    @FunctionalInterface
+    public interface Call<T> {
+        Outcome<T> execute() throws IOException, InterruptedException;
+    }
+
+    /** Чтение тела успешного ответа под разрешением лимита; не должно блокироваться ни на чём, кроме ответа. */
+    @FunctionalInterface
+    public interface BodyReader<T, R> {
+        R read(T body) throws IOException, InterruptedException;
+    }
+
+    /** Результат одной попытки: код ответа, заголовок Retry-After и тело (только при успехе). */
+    public record Outcome<T>(int status, String retryAfter, T body) {
+        public static <T> Outcome<T> ok(int status, T body) {
+            return new Outcome<>(status, null, body);
+        }
+
+        public static <T> Outcome<T> failed(int status, String retryAfter) {
+            return new Outcome<>(status, retryAfter, null);
+        }
+
+        public boolean isSuccess() {
+            return status >= 200 && status < 400;
+        }
+    }
+
+    private final Map<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+    private final ScrapeMetrics metrics;
+
+    private final int initialConcurrency;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final long latencyThresholdMs;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    public OutboundHttp(ScrapeMetrics metrics, HttpProperties http) {
+        this.metrics = metrics;
+        this.initialConcurrency = http.initialConcurrency();
+        this.minConcurrency = http.minConcurrency();
+        this.maxConcurrency = http.maxConcurrency();
+        this.latencyThresholdMs = http.latencyThresholdMs();
+        this.maxAttempts = http.maxAttempts();
+        this.backoffBaseMs = http.backoffBaseMs();
+        this.backoffMaxMs = http.backoffMaxMs();
+    }
+
+    /**
+     * Выполняет запрос к {@code host} с повторами. Возвращает последний ответ
+     * (успешный или нет); IOException пробрасывается, если все попытки упали с ошибкой сети.
+     */
+    public <T> Outcome<T> execute(String host, Call<T> call) throws IOException, InterruptedException {
+        return execute(host, call, body -> body);
+    }
+
+    /**
+     * Как {@link #execute(String, Call)}, но тело успешного ответа читает {@code reader}, не отпуская разрешение лимита:
+     * потоковый ответ иначе читался бы уже вне лимита. Задержка для AIMD считается до конца чтения. Читатель ждёт
+     * только сам ответ: передача результата дальше (в очередь следующего этапа) - после возврата, иначе ожидание
+     * чужой очереди держало бы разрешение и считалось бы задержкой сервера. Ошибка чтения тела не повторяется
+     * и считается признаком перегрузки.
+     */
+    public <T, R> Outcome<R> execute(String host, Call<T> call, BodyReader<T, R> reader) throws IOException, InterruptedException {
+        AdaptiveLimiter limiter = limiter(host);
+        for (int attempt = 1; ; attempt++) {
+            long waitStart = System.nanoTime();
+            limiter.acquire();
+            long start = System.nanoTime();
+            metrics.permitWait(host, start - waitStart);
+            Outcome<T> outcome;
+            try {
+                outcome = call.execute();
+            } catch (IOException e) {
+                // таймаут - явный признак перегрузки, остальные ошибки сети считаем так же
+                limiter.onOverload(null);
+                String reason = e instanceof HttpTimeoutException ? "timeout" : "io";
+                metrics.httpRequest(host, reason, System.nanoTime() - start);
+                if (attempt >= maxAttempts) throw e;
+                metrics.httpRetry(host, reason);
+                if (!(e instanceof HttpTimeoutException)) {
+                    System.err.println("Повтор " + attempt + " для " + host + ": " + e.getMessage());
+                }
+                Thread.sleep(backoff(attempt, null).toMillis());
+                continue;
+            } catch (InterruptedException | RuntimeException e) {
+                limiter.release();
+                throw e;
+            }
+
+            metrics.httpRequest(host, String.valueOf(outcome.status()), System.nanoTime() - start);
+            if (isRetryable(outcome.status())) {
+                Duration retryAfter = parseRetryAfter(outcome.retryAfter());
+                limiter.onOverload(retryAfter);
+                if (attempt >= maxAttempts) return Outcome.failed(outcome.status(), outcome.retryAfter());
+                metrics.httpRetry(host, String.valueOf(outcome.status()));
+                Thread.sleep(backoff(attempt, retryAfter).toMillis());
+                continue;
+            }
+            if (!outcome.isSuccess()) {
+                limiter.release();
+                return Outcome.failed(outcome.status(), outcome.retryAfter());
+            }
+            R result;
+            try {
+                result = reader.read(outcome.body());
+            } catch (IOException e) {
+                limiter.onOverload(null);
+                throw e;
+            } catch (InterruptedException | RuntimeException e) {
+                limiter.release();
+                throw e;
+            }
+            limiter.onSuccess((System.nanoTime() - start) / 1_000_000);
+            return Outcome.ok(outcome.status(), result);
+        }
+    }
+
+    public int currentLimit(String host) {
+        return limiter(host).currentLimit();
+    }
+
+    private AdaptiveLimiter limiter(String host) {
+        return limiters.computeIfAbsent(host, h -> {
+            AdaptiveLimiter limiter = new AdaptiveLimiter(initialConcurrency, minConcurrency, maxConcurrency, latencyThresholdMs);
+            metrics.gauge("scraper.http.concurrency.limit", "host", h, limiter::currentLimit);
+            return limiter;
+        });
+    }
+
+    private static boolean isRetryable(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    /** Full jitter: случайно в [0, min(max, base * 2^(attempt-1))], но не меньше Retry-After. */
+    private Duration backoff(int attempt, Duration retryAfter) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        long jitter = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (retryAfter != null && retryAfter.toMillis() > jitter) {
+            return retryAfter;
+        }
+        return Duration.ofMillis(jitter);
+    }
+
+    /** Retry-After бывает числом секунд или HTTP-датой. */
+    static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) return null;
+        String v = value.trim();
+        try {
+            return Duration.ofSeconds(Long.parseLong(v));
+        } catch (NumberFormatException ignored) {
+        }
+        try {
+            ZonedDateTime at = ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration d = Duration.between(ZonedDateTime.now(at.getZone()), at);
+            return d.isNegative() ? Duration.ZERO : d;
+        } catch (DateTimeParseException ignored) {
+            return null;
+        }
+    }
+}
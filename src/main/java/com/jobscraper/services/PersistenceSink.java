@@ -0,0 +1,366 @@
+package com.jobscraper.services;
+
+import com.jobscraper.config.DistributedProperties;
+import com.jobscraper.config.SinkProperties;
+import com.jobscraper.entity.Item;
+import com.jobscraper.entity.ListPage;
+import com.jobscraper.entity.Organization;
+import com.jobscraper.entity.PageCheckpoint;
+import com.jobscraper.entity.Tag;
+import com.jobscraper.repository.ItemRepository;
+import com.jobscraper.repository.ListPageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Единственный писатель в БД. Потоки вакансий кладут записи в ограниченную очередь
+ * и не ждут базу; писатель сбрасывает накопленное одной транзакцией по размеру пачки или по таймеру.
+ * Id берутся из последовательностей с pooled-оптимизатором, поэтому Hibernate собирает INSERT-ы в JDBC-батчи.
+ * Отметки о записанных страницах идут той же очередью следом за их записями; после упавшей пачки
+ * отметки до конца прогона не пишутся, чтобы продолженный прогон перечитал эти страницы.
+ * В распределённом прогоне ту же организацию или тег может впервые увидеть и другой узел,
+ * поэтому новые записи справочников вставляются через {@code on conflict}.
+ * Записанная пачка уходит в {@link RunExport}; с {@code scraper.sink.database=false} вакансии и страницы
+ * пишутся только туда, а в БД остаются лишь отметки страниц.
+ */
+@Component
+public class PersistenceSink {
+
+    private final ItemRepository itemRepository;
+    private final ListPageRepository listPageRepository;
+    private final DictionaryCache dictionaryCache;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ScrapeMetrics metrics;
+    private final RunExport runExport;
+
+    private final BlockingQueue<Object> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final boolean sharedDictionaries;
+    private final boolean database;
+
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean batchFailed;
+    // справочники, записанные текущей пачкой: при откате им возвращается состояние "не записан"
+    private final List<Organization> insertedOrganizations = new ArrayList<>();
+    private final List<Organization> updatedOrganizations = new ArrayList<>();
+    private final List<Tag> insertedTags = new ArrayList<>();
+
+    public PersistenceSink(ItemRepository itemRepository, ListPageRepository listPageRepository, DictionaryCache dictionaryCache,
+                           TransactionTemplate transactionTemplate, EntityManager entityManager, ScrapeMetrics metrics,
+                           RunExport runExport, SinkProperties sink, DistributedProperties distributed) {
+        this.itemRepository = itemRepository;
+        this.listPageRepository = listPageRepository;
+        this.dictionaryCache = dictionaryCache;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.metrics = metrics;
+        this.runExport = runExport;
+        this.queue = new ArrayBlockingQueue<>(sink.queueCapacity());
+        this.batchSize = sink.batchSize();
+        this.flushIntervalMs = sink.flushIntervalMs();
+        this.sharedDictionaries = distributed.enabled();
+        this.database = sink.database();
+    }
+
+    @PostConstruct
+    public void start() {
+        alignSequences();
+        running = true;
+        writer = new Thread(this::writeLoop, "persistence-sink");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flush();
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void add(Item item) throws InterruptedException {
+        queue.put(item);
+    }
+
+    public void add(ListPage listPage) throws InterruptedException {
+        queue.put(listPage);
+    }
+
+    public void add(PageCheckpoint checkpoint) throws InterruptedException {
+        queue.put(checkpoint);
+    }
+
+    /** Начало прогона: ошибки записи прошлого прогона больше не блокируют отметки страниц. */
+    public void resetFailures() {
+        batchFailed = false;
+    }
+
+    /** Дожидается записи всего, что было поставлено в очередь до вызова, включая неполную пачку. */
+    public void flush() {
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        try {
+            queue.put(barrier);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        barrier.join();
+    }
+
+    /** Пачка упала: отметки страниц до конца прогона не пишутся. */
+    public boolean failed() {
+        return batchFailed;
+    }
+
+    /** Вакансии и страницы пишутся в БД; false - только в выгрузку прогона. */
+    public boolean database() {
+        return database;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public int queueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    private void writeLoop() {
+        List<Item> items = new ArrayList<>(batchSize);
+        List<ListPage> pages = new ArrayList<>(batchSize);
+        List<PageCheckpoint> checkpoints = new ArrayList<>();
+        long lastFlush = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            Object next;
+            try {
+                long wait = Math.max(1, flushIntervalMs - (System.currentTimeMillis() - lastFlush));
+                next = queue.poll(wait, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                if (!running) break;
+                continue;
+            }
+
+            if (next instanceof Item item) {
+                items.add(item);
+            } else if (next instanceof ListPage page) {
+                pages.add(page);
+            } else if (next instanceof PageCheckpoint checkpoint && !batchFailed) {
+                checkpoints.add(checkpoint);
+            }
+
+            boolean barrier = next instanceof CompletableFuture<?>;
+            boolean full = items.size() + pages.size() >= batchSize;
+            boolean due = System.currentTimeMillis() - lastFlush >= flushIntervalMs;
+            if (barrier || full || due) {
+                write(items, pages, checkpoints);
+                lastFlush = System.currentTimeMillis();
+            }
+            if (barrier) {
+                ((CompletableFuture<?>) next).complete(null);
+            }
+        }
+        write(items, pages, checkpoints);
+    }
+
+    private void write(List<Item> items, List<ListPage> pages, List<PageCheckpoint> checkpoints) {
+        if (items.isEmpty() && pages.isEmpty() && checkpoints.isEmpty()) return;
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (database) {
+                    saveDictionaries(items, pages);
+                    loadUpdated(items, pages);
+                    itemRepository.saveAll(items);
+                    listPageRepository.saveAll(pages);
+                }
+                checkpoints.forEach(entityManager::persist);
+            });
+            metrics.dbFlush(items.size() + pages.size(), System.nanoTime() - start);
+            runExport.write(items, pages); // только закоммиченное; в очередь выгрузки, файл пишет её поток
+        } catch (RuntimeException e) {
+            System.err.println("Ошибка записи пачки (" + items.size() + " вакансий, " + pages.size() + " страниц)");
+            e.printStackTrace();
+            batchFailed = true;
+            dictionaryCache.rolledBack(insertedOrganizations, updatedOrganizations, insertedTags);
+        } finally {
+            insertedOrganizations.clear();
+            updatedOrganizations.clear();
+            insertedTags.clear();
+            items.clear();
+            pages.clear();
+            checkpoints.clear();
+        }
+    }
+
+    /**
+     * Вставляет организации и теги, которые пачка видит впервые, и обновляет изменившиеся организации.
+     * Уже записанные организации подставляются ссылкой по id ({@code getReference}): без этого Hibernate
+     * проверял бы SELECT-ом, существует ли сущность с присвоенным id.
+     */
+    private void saveDictionaries(List<Item> items, List<ListPage> pages) {
+        Set<Organization> organizations = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Item item : items) {
+            if (item.getOrganization() != null) organizations.add(item.getOrganization());
+        }
+        for (Organization org : ordered(organizations, Comparator.comparing(Organization::getId))) {
+            if (org.isNew()) {
+                insertedOrganizations.add(org);
+            } else if (org.isChanged()) {
+                updatedOrganizations.add(org);
+            }
+            if (sharedDictionaries && (org.isNew() || org.isChanged())) {
+                upsert(org);
+            } else if (org.isNew()) {
+                entityManager.persist(org);
+            } else if (org.isChanged()) {
+                org.setChanged(false);
+                entityManager.merge(org);
+            }
+        }
+        for (Item item : items) {
+            Organization org = item.getOrganization();
+            if (org != null && !entityManager.contains(org)) {
+                item.setOrganization(entityManager.getReference(Organization.class, org.getId()));
+            }
+        }
+
+        Set<Tag> tags = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Item item : items) {
+            for (Tag tag : item.getTags()) {
+                if (tag.getId() == null) tags.add(tag);
+            }
+        }
+        for (ListPage page : pages) {
+            for (Tag tag : page.getTags()) {
+                if (tag.getId() == null) tags.add(tag);
+            }
+        }
+        for (Tag tag : ordered(tags, Comparator.comparing(Tag::getName))) {
+            insertedTags.add(tag);
+            if (sharedDictionaries) {
+                upsert(tag);
+            } else {
+                entityManager.persist(tag);
+            }
+        }
+    }
+
+    /**
+     * Строки, которые пачка обновляет по id, загружаются двумя запросами на всю пачку (вместе с тегами),
+     * и merge находит их в контексте вместо SELECT на каждую. Задачи разбора ставят в очередь только id и поля листинга:
+     * адрес и поля страницы вакансии, которых в них нет, берутся из записанной строки.
+     * Строка, которой уже нет (полная перезаливка), вставляется заново.
+     */
+    private void loadUpdated(List<Item> items, List<ListPage> pages) {
+        List<Long> itemIds = items.stream().map(Item::getId).filter(Objects::nonNull).toList();
+        if (!itemIds.isEmpty()) {
+            Map<Long, Item> stored = new HashMap<>();
+            for (Item item : itemRepository.findWithTagsByIdIn(itemIds)) {
+                stored.put(item.getId(), item);
+            }
+            for (Item item : items) {
+                if (item.getId() == null) continue;
+                Item current = stored.get(item.getId());
+                if (current == null) {
+                    item.setId(null);
+                    continue;
+                }
+                if (item.getAddress() == null) item.setAddress(current.getAddress());
+                if (item.getLaborFunction() == null) item.setLaborFunction(current.getLaborFunction());
+                if (item.getDescription() == null) item.setDescription(current.getDescription());
+                if (item.getEnrichedAt() == null) {
+                    item.setEnrichedAt(current.getEnrichedAt());
+                    item.setEnrichedHash(current.getEnrichedHash());
+                }
+            }
+        }
+        List<Long> pageIds = pages.stream().map(ListPage::getId).filter(Objects::nonNull).toList();
+        if (!pageIds.isEmpty()) {
+            Set<Long> stored = new HashSet<>();
+            for (ListPage page : listPageRepository.findWithTagsByIdIn(pageIds)) {
+                stored.add(page.getId());
+            }
+            for (ListPage page : pages) {
+                if (page.getId() != null && !stored.contains(page.getId())) page.setId(null);
+            }
+        }
+    }
+
+    /** Узлы вставляют справочники в одном порядке, иначе встречные upsert-ы двух пачек ловят deadlock. */
+    private <T> Collection<T> ordered(Set<T> values, Comparator<T> order) {
+        if (!sharedDictionaries) return values;
+        List<T> sorted = new ArrayList<>(values);
+        sorted.sort(order);
+        return sorted;
+    }
+
+    private void upsert(Organization org) {
+        org.setChanged(false);
+        entityManager.createNativeQuery("insert into organization (id, name, logoUrl, slug) values (?1, ?2, ?3, ?4) "
+                        + "on conflict (id) do update set name = excluded.name, logoUrl = excluded.logoUrl, slug = excluded.slug")
+                .setParameter(1, org.getId())
+                .setParameter(2, org.getName())
+                .setParameter(3, org.getLogoUrl())
+                .setParameter(4, org.getSlug())
+                .executeUpdate();
+        org.setPersisted(true);
+    }
+
+    /**
+     * Id из tag_seq мимо пула Hibernate: значение последовательности не попадает ни в один выданный пул.
+     * Без {@code do update}: блокировка строки тега конфликтовала бы с проверками внешних ключей пачек других узлов.
+     * Вставка ждёт пачку, вставляющую тот же тег, а следующий SELECT уже видит её строку.
+     */
+    private void upsert(Tag tag) {
+        List<?> inserted = entityManager.createNativeQuery("insert into tag (id, name) values (nextval('tag_seq'), ?1) "
+                        + "on conflict (name) do nothing returning id")
+                .setParameter(1, tag.getName())
+                .getResultList();
+        Number id = (Number) (!inserted.isEmpty() ? inserted.get(0)
+                : entityManager.createNativeQuery("select id from tag where name = ?1")
+                        .setParameter(1, tag.getName())
+                        .getSingleResult());
+        tag.setId(id.longValue());
+    }
+
+    /**
+     * Таблицы раньше заполнялись через IDENTITY: поднимаем последовательности до max(id),
+     * чтобы новые id из пула не пересеклись со старыми строками.
+     */
+    private void alignSequences() {
+        transactionTemplate.executeWithoutResult(status -> {
+            align("item_seq", "item");
+            align("list_page_seq", "list_page");
+            align("tag_seq", "tag");
+        });
+    }
+
+    private void align(String sequence, String table) {
+        entityManager.createNativeQuery("select setval('" + sequence + "', greatest((select coalesce(max(id), 0) from "
+                        + table + "), (select last_value from " + sequence + ")))")
+                .getSingleResult();
+    }
+}
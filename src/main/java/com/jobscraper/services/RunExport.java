@@ -0,0 +1,489 @@
+package com.jobscraper.services;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscraper.config.ExportProperties;
+import com.jobscraper.entity.Item;
+import com.jobscraper.entity.ListPage;
+import com.jobscraper.entity.Organization;
+import com.jobscraper.entity.Tag;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Выгрузка прогона в файл рядом с записью в БД: снимок для аналитики без запросов к PostgreSQL.
+ * Писатель ({@link PersistenceSink}) отдаёт сюда каждую записанную пачку, поток выгрузки копит записи в блоки по
+ * {@code scraper.export.block-records}. Блок - NDJSON в gzip, за ним колонки с кодами словарей
+ * (функция, организация, дата, теги) little-endian int-ами. В конце прогона пишется футер (JSON):
+ * словари и индекс блоков с диапазоном дат и набором функций, по которому {@link RunExportReader}
+ * читает только нужные блоки. Последние 20 байт файла - смещение и длина футера и {@link #MAGIC}.
+ * Файл без футера (прогон прерван) читатель не открывает; продолженный прогон пишет свой файл.
+ */
+@Component
+public class RunExport {
+
+    public static final byte[] MAGIC = "JOBSEXP1".getBytes(StandardCharsets.US_ASCII);
+    public static final int TRAILER_BYTES = Long.BYTES + Integer.BYTES + MAGIC.length;
+    public static final int NONE = -1;
+
+    /** Футер файла; коды в колонках и {@link Block#functions()} - индексы в словарях. */
+    public record Footer(int version, long runId, String node, LocalDateTime createdAt, long items, long listPages,
+                         List<String> functions, List<OrganizationEntry> organizations, List<String> tags,
+                         List<Block> blocks) {
+    }
+
+    public record OrganizationEntry(long id, String name) {
+    }
+
+    /**
+     * @param kind      item, listPage или jobFunctions (индустрии, дописанные в конце прогона: {@code url} -> список)
+     * @param functions функции записей блока: laborFunction и jobFunctions вакансий, jobFunction страниц листинга
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Block(String kind, long offset, int length, long columnsOffset, int columnsLength, int records,
+                       LocalDate minPosted, LocalDate maxPosted, SortedSet<Integer> functions) {
+    }
+
+    /** Строка NDJSON вакансии. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemRow(Long id, String positionName, String url, String laborFunction, List<String> jobFunctions,
+                          String address, LocalDate postedDate, Long organizationId, String organization,
+                          List<String> tags, String description, String contentHash) {
+    }
+
+    /** Строка NDJSON страницы листинга. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ListPageRow(Long id, String jobFunction, Integer countJobs, String url, List<String> tags) {
+    }
+
+    public record JobFunctionsRow(String url, List<String> jobFunctions) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final DictionaryCache dictionaryCache;
+    private final boolean enabled;
+    private final Path dir;
+    private final int blockRecords;
+    // сжатие и запись идут в своём потоке: писатель БД только ставит закоммиченную пачку в очередь
+    private final BlockingQueue<Runnable> queue;
+    private final Thread exporter;
+
+    private volatile boolean active; // выгрузка начата и ещё не закончена: пачки стоит ставить в очередь
+    private RunFile file; // только поток выгрузки; null - выгрузка сейчас не идёт
+
+    public RunExport(ObjectMapper objectMapper, DictionaryCache dictionaryCache, ExportProperties export) {
+        this.objectMapper = objectMapper;
+        this.dictionaryCache = dictionaryCache;
+        this.enabled = export.enabled();
+        this.dir = export.dir();
+        this.blockRecords = Math.max(1, export.blockRecords());
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, export.queueCapacity()));
+        this.exporter = new Thread(this::exportLoop, "run-export");
+        this.exporter.setDaemon(true);
+        if (this.enabled) exporter.start();
+    }
+
+    /**
+     * Новый файл прогона: {@code run-<id>.jobs}, у продолженного прогона - с номером продолжения,
+     * у узла распределённого прогона - с id узла (каждый узел выгружает свои записи).
+     */
+    public void begin(long runId, int resumes, String node) {
+        if (!enabled) return;
+        abort();
+        StringBuilder name = new StringBuilder("run-").append(runId);
+        if (resumes > 0) name.append("-r").append(resumes);
+        if (node != null) name.append('-').append(node.replaceAll("[^A-Za-z0-9._-]", "_"));
+        Path path = dir.resolve(name.append(".jobs").toString());
+        active = true;
+        await(() -> {
+            try {
+                Files.createDirectories(dir);
+                file = new RunFile(path, runId, node);
+            } catch (IOException e) {
+                System.err.println("Выгрузка отключена, не удалось создать " + path + ": " + e.getMessage());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Пачка, записанная в БД (или вместо БД); вызывается потоком писателя. Строки снимаются сразу,
+     * в очереди лежат уже неизменяемые копии. Полная очередь задерживает писателя, а не копит память.
+     */
+    public void write(List<Item> items, List<ListPage> pages) {
+        if (!active) return;
+        List<ItemRow> itemRows = new ArrayList<>(items.size());
+        for (Item item : items) itemRows.add(itemRow(item));
+        List<ListPageRow> pageRows = new ArrayList<>(pages.size());
+        for (ListPage page : pages) {
+            pageRows.add(new ListPageRow(page.getId(), page.getJobFunction(), page.getCountJobs(), page.getUrl(),
+                    tagNames(page.getTags())));
+        }
+        submit(() -> {
+            if (file == null) return;
+            try {
+                for (ItemRow row : itemRows) file.add(row);
+                for (ListPageRow row : pageRows) file.add(row);
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    /** Индустрии, дописанные в {@code item.jobFunctions} после записи вакансий (ключ - новое значение). */
+    public void jobFunctions(Map<String, List<String>> urlsByFunctions) {
+        if (!active || urlsByFunctions.isEmpty()) return;
+        Map<String, List<String>> copy = Map.copyOf(urlsByFunctions);
+        submit(() -> {
+            if (file == null) return;
+            try {
+                file.jobFunctions(copy);
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+    }
+
+    /** Дожидается пачек в очереди и дописывает хвостовые блоки и футер. */
+    public Path finish() {
+        if (!active) return null;
+        active = false;
+        return await(() -> {
+            if (file == null) return null;
+            RunFile finished = file;
+            file = null;
+            try {
+                finished.finish();
+                System.out.printf("🗄 Выгрузка %s: вакансий %d, страниц листинга %d, блоков %d, %d КБ%n", finished.path,
+                        finished.items, finished.listPages, finished.blocks.size(), Files.size(finished.path) / 1024);
+                return finished.path;
+            } catch (IOException e) {
+                System.err.println("Не удалось дописать выгрузку " + finished.path + ": " + e.getMessage());
+                finished.closeQuietly();
+                return null;
+            }
+        });
+    }
+
+    /** Прогон прерван: файл закрывается без футера. */
+    public void abort() {
+        if (!active) return;
+        active = false;
+        await(() -> {
+            closeFile();
+            return null;
+        });
+    }
+
+    private void fail(IOException e) {
+        System.err.println("Выгрузка прекращена: " + e.getMessage());
+        closeFile();
+    }
+
+    private void closeFile() {
+        if (file != null) {
+            file.closeQuietly();
+            file = null;
+        }
+    }
+
+    private void exportLoop() {
+        while (true) {
+            try {
+                queue.take().run();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка выгрузки: " + e.getMessage());
+            }
+        }
+    }
+
+    private void submit(Runnable task) {
+        try {
+            queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Задача в очереди выгрузки после всех поставленных раньше; вызывающий ждёт её результата. */
+    private <T> T await(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        submit(() -> {
+            try {
+                result.complete(task.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return Thread.currentThread().isInterrupted() ? null : result.join();
+    }
+
+    private ItemRow itemRow(Item item) {
+        Organization org = item.getOrganization();
+        Long orgId = org != null ? org.getId() : null;
+        Organization named = orgId != null ? dictionaryCache.organization(orgId) : null; // в пачке может быть ссылка-прокси
+        return new ItemRow(item.getId(), item.getPositionName(), item.getUrl(), item.getLaborFunction(),
+                split(item.getJobFunctions()), item.getAddress(), localDate(item.getPostedDate()), orgId,
+                named != null ? named.getName() : null, tagNames(item.getTags()), item.getDescription(),
+                item.getContentHash());
+    }
+
+    /** Открытый файл выгрузки: текущие блоки вакансий и страниц, словари и индекс записанных блоков. */
+    private final class RunFile {
+        final Path path;
+        final long runId;
+        final String node;
+        final FileChannel channel;
+        final Dictionary functions = new Dictionary();
+        final Dictionary tags = new Dictionary();
+        final Map<Long, Integer> organizationCodes = new HashMap<>();
+        final List<OrganizationEntry> organizations = new ArrayList<>();
+        final List<Block> blocks = new ArrayList<>();
+        // блок, в котором лежит вакансия: индустрии, дописанные в конце прогона, попадают в его индекс
+        final Map<String, Integer> itemBlocks = new HashMap<>();
+        final List<ItemRow> itemRows = new ArrayList<>();
+        final List<ListPageRow> pageRows = new ArrayList<>();
+        long position;
+        long items;
+        long listPages;
+
+        RunFile(Path path, long runId, String node) throws IOException {
+            this.path = path;
+            this.runId = runId;
+            this.node = node;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            write(ByteBuffer.wrap(MAGIC));
+        }
+
+        void add(ItemRow row) throws IOException {
+            itemRows.add(row);
+            if (itemRows.size() >= blockRecords) flushItems();
+        }
+
+        void add(ListPageRow row) throws IOException {
+            pageRows.add(row);
+            if (pageRows.size() >= blockRecords) flushPages();
+        }
+
+        void jobFunctions(Map<String, List<String>> urlsByFunctions) throws IOException {
+            flushItems();
+            List<JobFunctionsRow> rows = new ArrayList<>();
+            SortedSet<Integer> codes = new TreeSet<>();
+            for (Map.Entry<String, List<String>> e : urlsByFunctions.entrySet()) {
+                List<String> values = split(e.getKey());
+                for (String value : values) codes.add(functions.code(value));
+                for (String url : e.getValue()) {
+                    rows.add(new JobFunctionsRow(url, values));
+                    Integer block = itemBlocks.get(url);
+                    if (block != null) {
+                        for (String value : values) blocks.get(block).functions().add(functions.code(value));
+                    }
+                }
+            }
+            long offset = position;
+            int length = write(gzipNdjson(rows));
+            blocks.add(new Block("jobFunctions", offset, length, position, 0, rows.size(), null, null, codes));
+        }
+
+        void finish() throws IOException {
+            flushItems();
+            flushPages();
+            long footerOffset = position;
+            Footer footer = new Footer(1, runId, node, LocalDateTime.now(), items, listPages,
+                    functions.values, organizations, tags.values, blocks);
+            int footerLength = write(ByteBuffer.wrap(objectMapper.writeValueAsBytes(footer)));
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            trailer.putLong(footerOffset).putInt(footerLength).put(MAGIC).flip();
+            write(trailer);
+            channel.force(false);
+            channel.close();
+        }
+
+        /** Колонки вакансий: функция, организация, день публикации, смещения тегов, теги. */
+        private void flushItems() throws IOException {
+            if (itemRows.isEmpty()) return;
+            int n = itemRows.size();
+            ColumnWriter columns = new ColumnWriter(n * 4 + 1);
+            SortedSet<Integer> blockFunctions = new TreeSet<>();
+            LocalDate min = null;
+            LocalDate max = null;
+            for (ItemRow row : itemRows) {
+                int code = row.laborFunction() != null ? functions.code(row.laborFunction()) : NONE;
+                columns.put(code);
+                if (code != NONE) blockFunctions.add(code);
+                for (String function : row.jobFunctions()) blockFunctions.add(functions.code(function));
+            }
+            for (ItemRow row : itemRows) {
+                columns.put(row.organizationId() != null ? organizationCode(row.organizationId(), row.organization()) : NONE);
+            }
+            for (ItemRow row : itemRows) {
+                LocalDate posted = row.postedDate();
+                columns.put(posted != null ? (int) posted.toEpochDay() : Integer.MIN_VALUE);
+                if (posted != null) {
+                    if (min == null || posted.isBefore(min)) min = posted;
+                    if (max == null || posted.isAfter(max)) max = posted;
+                }
+            }
+            tagColumns(columns, itemRows.stream().map(ItemRow::tags).toList());
+
+            int block = blocks.size();
+            for (ItemRow row : itemRows) {
+                if (row.url() != null) itemBlocks.put(row.url(), block);
+            }
+            long offset = position;
+            int length = write(gzipNdjson(itemRows));
+            long columnsOffset = position;
+            int columnsLength = write(columns.buffer());
+            blocks.add(new Block("item", offset, length, columnsOffset, columnsLength, n, min, max, blockFunctions));
+            items += n;
+            itemRows.clear();
+        }
+
+        /** Колонки страниц листинга: функция, countJobs, смещения тегов, теги. */
+        private void flushPages() throws IOException {
+            if (pageRows.isEmpty()) return;
+            int n = pageRows.size();
+            ColumnWriter columns = new ColumnWriter(n * 3 + 1);
+            SortedSet<Integer> blockFunctions = new TreeSet<>();
+            for (ListPageRow row : pageRows) {
+                int code = row.jobFunction() != null ? functions.code(row.jobFunction()) : NONE;
+                columns.put(code);
+                if (code != NONE) blockFunctions.add(code);
+            }
+            for (ListPageRow row : pageRows) {
+                columns.put(row.countJobs() != null ? row.countJobs() : NONE);
+            }
+            tagColumns(columns, pageRows.stream().map(ListPageRow::tags).toList());
+
+            long offset = position;
+            int length = write(gzipNdjson(pageRows));
+            long columnsOffset = position;
+            int columnsLength = write(columns.buffer());
+            blocks.add(new Block("listPage", offset, length, columnsOffset, columnsLength, n, null, null, blockFunctions));
+            listPages += n;
+            pageRows.clear();
+        }
+
+        private void tagColumns(ColumnWriter columns, List<List<String>> rows) {
+            int offset = 0;
+            columns.put(offset);
+            for (List<String> row : rows) {
+                offset += row.size();
+                columns.put(offset);
+            }
+            for (List<String> row : rows) {
+                for (String tag : row) columns.put(tags.code(tag));
+            }
+        }
+
+        private int organizationCode(long id, String name) {
+            return organizationCodes.computeIfAbsent(id, key -> {
+                organizations.add(new OrganizationEntry(key, name));
+                return organizations.size() - 1;
+            });
+        }
+
+        private ByteBuffer gzipNdjson(List<?> rows) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * 256);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(bytes, 64 * 1024)) {
+                for (Object row : rows) {
+                    gzip.write(objectMapper.writeValueAsBytes(row));
+                    gzip.write('\n');
+                }
+            }
+            return ByteBuffer.wrap(bytes.toByteArray());
+        }
+
+        private int write(ByteBuffer buffer) throws IOException {
+            int length = buffer.remaining();
+            while (buffer.hasRemaining()) position += channel.write(buffer);
+            return length;
+        }
+
+        void closeQuietly() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // файл без футера читатель всё равно не откроет
+            }
+        }
+    }
+
+    /** Словарь значений: код - порядковый номер первого появления в файле. */
+    private static final class Dictionary {
+        final Map<String, Integer> codes = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+
+        int code(String value) {
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+
+    /** Буфер колонок блока; растёт при переполнении (теги заранее не посчитаны). */
+    private static final class ColumnWriter {
+        private ByteBuffer buffer;
+
+        ColumnWriter(int expectedInts) {
+            buffer = ByteBuffer.allocate(expectedInts * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void put(int value) {
+            if (buffer.remaining() < Integer.BYTES) {
+                ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+            buffer.putInt(value);
+        }
+
+        ByteBuffer buffer() {
+            return buffer.flip();
+        }
+    }
+
+    private static List<String> split(String jobFunctions) {
+        if (jobFunctions == null || jobFunctions.isBlank()) return List.of();
+        return List.of(jobFunctions.split(", "));
+    }
+
+    private static List<String> tagNames(List<Tag> tags) {
+        return tags.stream().map(Tag::getName).toList();
+    }
+
+    private static LocalDate localDate(Date date) {
+        if (date == null) return null;
+        if (date instanceof java.sql.Date sqlDate) return sqlDate.toLocalDate();
+        return LocalDate.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+}
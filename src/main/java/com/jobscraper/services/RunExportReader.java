@@ -0,0 +1,166 @@
+package com.jobscraper.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Чтение файла {@link RunExport}: сначала футер, затем только блоки, подходящие по функции и диапазону дат.
+ * Индустрии, дописанные в конце прогона (блок jobFunctions), подставляются в строки вакансий при чтении.
+ */
+@Component
+public class RunExportReader {
+
+    private final ObjectMapper objectMapper;
+
+    public RunExportReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public RunExport.Footer footer(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return footer(channel, path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Вакансии с функцией {@code function} (laborFunction или одна из jobFunctions) и датой публикации
+     * в {@code [from, to]}; null - без условия. Вакансия без даты подходит только при пустом диапазоне.
+     *
+     * @return сколько блоков вакансий прочитано
+     */
+    public int items(Path path, String function, LocalDate from, LocalDate to, Consumer<JsonNode> consumer) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            RunExport.Footer footer = footer(channel, path);
+            int code = function != null ? footer.functions().indexOf(function) : RunExport.NONE;
+            if (function != null && code == RunExport.NONE) return 0;
+
+            Map<String, JsonNode> patched = new HashMap<>();
+            for (RunExport.Block block : footer.blocks()) {
+                if (!block.kind().equals("jobFunctions")) continue;
+                forEachRow(channel, block, row -> patched.put(row.path("url").asText(), row.path("jobFunctions")));
+            }
+
+            int read = 0;
+            for (RunExport.Block block : footer.blocks()) {
+                if (!block.kind().equals("item")) continue;
+                if (function != null && !block.functions().contains(code)) continue;
+                if (from != null && (block.maxPosted() == null || block.maxPosted().isBefore(from))) continue;
+                if (to != null && (block.minPosted() == null || block.minPosted().isAfter(to))) continue;
+                read++;
+                forEachRow(channel, block, row -> {
+                    JsonNode functions = patched.get(row.path("url").asText());
+                    if (functions != null) ((ObjectNode) row).set("jobFunctions", functions);
+                    if (matches(row, function, from, to)) consumer.accept(row);
+                });
+            }
+            return read;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Число вакансий по laborFunction: читаются только колонки, без распаковки NDJSON. */
+    public Map<String, Integer> laborFunctionCounts(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            RunExport.Footer footer = footer(channel, path);
+            int[] counts = new int[footer.functions().size()];
+            for (RunExport.Block block : footer.blocks()) {
+                if (!block.kind().equals("item")) continue;
+                ByteBuffer columns = read(channel, block.columnsOffset(), block.columnsLength()).order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < block.records(); i++) {
+                    int code = columns.getInt(); // первая колонка блока - laborFunction
+                    if (code != RunExport.NONE) counts[code]++;
+                }
+            }
+            Map<String, Integer> result = new LinkedHashMap<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) result.put(footer.functions().get(code), counts[code]);
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private RunExport.Footer footer(FileChannel channel, Path path) throws IOException {
+        long size = channel.size();
+        if (size < RunExport.MAGIC.length + RunExport.TRAILER_BYTES) {
+            throw new IllegalStateException("Выгрузка " + path + " не дописана");
+        }
+        ByteBuffer trailer = read(channel, size - RunExport.TRAILER_BYTES, RunExport.TRAILER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long footerOffset = trailer.getLong();
+        int footerLength = trailer.getInt();
+        byte[] magic = new byte[RunExport.MAGIC.length];
+        trailer.get(magic);
+        if (!Arrays.equals(magic, RunExport.MAGIC)) {
+            throw new IllegalStateException("Выгрузка " + path + " не дописана");
+        }
+        return objectMapper.readValue(read(channel, footerOffset, footerLength).array(), RunExport.Footer.class);
+    }
+
+    private void forEachRow(FileChannel channel, RunExport.Block block, Consumer<JsonNode> consumer) throws IOException {
+        ByteBuffer gzip = read(channel, block.offset(), block.length());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(gzip.array())), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) consumer.accept(objectMapper.readTree(line));
+            }
+        }
+    }
+
+    private static boolean matches(JsonNode row, String function, LocalDate from, LocalDate to) {
+        if (function != null && !function.equals(row.path("laborFunction").asText(null))
+                && !contains(row.path("jobFunctions"), function)) {
+            return false;
+        }
+        if (from == null && to == null) return true;
+        String posted = row.path("postedDate").asText(null);
+        if (posted == null) return false;
+        LocalDate date = LocalDate.parse(posted);
+        return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+    }
+
+    private static boolean contains(JsonNode values, String value) {
+        if (!(values instanceof ArrayNode array)) return false;
+        for (JsonNode node : array) {
+            if (value.equals(node.asText())) return true;
+        }
+        return false;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Выгрузка обрезана");
+            }
+        }
+        return buffer.flip();
+    }
+}
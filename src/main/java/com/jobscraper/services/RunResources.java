@@ -0,0 +1,143 @@
+package com.jobscraper.services;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Замер ресурсов прогона, чтобы сравнивать режимы исполнения: пики платформенных потоков JVM (из них - несущих
+ * виртуальные потоки), виртуальных потоков конвейера, heap и RSS процесса.
+ * RSS и несущие потоки снимаются опросом во время обхода: VmHWM из /proc - пик за всю жизнь процесса,
+ * а не прогона. Виртуальные потоки ThreadMXBean не видит, их считают исполнители режима VIRTUAL ({@link #track}).
+ */
+public class RunResources {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+    private static final long SAMPLE_MS = 100;
+    private static final String CARRIER_GROUP = "CarrierThreads";
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP)
+            .toList();
+
+    private final AtomicLong peakRssKb = new AtomicLong(-1);
+    private final AtomicInteger peakCarrierThreads = new AtomicInteger();
+    private final AtomicInteger liveVirtualThreads = new AtomicInteger();
+    private final AtomicInteger peakVirtualThreads = new AtomicInteger();
+    private ScheduledExecutorService sampler; // поток опроса - с первого прогона
+    private ScheduledFuture<?> sampling;
+
+    public synchronized void start() {
+        threads.resetPeakThreadCount();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        peakRssKb.set(-1);
+        peakCarrierThreads.set(0);
+        peakVirtualThreads.set(liveVirtualThreads.get());
+        if (sampler == null) {
+            sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "run-resources");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        if (sampling != null) sampling.cancel(false);
+        sampling = sampler.scheduleAtFixedRate(this::sample, 0, SAMPLE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Конец обхода: последний замер, дальше пики RSS и несущих потоков не меняются. */
+    public synchronized void stop() {
+        if (sampling != null) {
+            sampling.cancel(false);
+            sampling = null;
+        }
+        sample();
+    }
+
+    /** Оборачивает задачу виртуального потока: пока она выполняется, поток считается живым. */
+    Runnable track(Runnable task) {
+        return () -> {
+            peakVirtualThreads.accumulateAndGet(liveVirtualThreads.incrementAndGet(), Math::max);
+            try {
+                task.run();
+            } finally {
+                liveVirtualThreads.decrementAndGet();
+            }
+        };
+    }
+
+    /** Пик платформенных потоков JVM с начала прогона, включая несущие. */
+    public int peakThreads() {
+        return threads.getPeakThreadCount();
+    }
+
+    /** Пик несущих потоков виртуальных (0 в режиме POOLED). */
+    public int peakCarrierThreads() {
+        return peakCarrierThreads.get();
+    }
+
+    /** Пик одновременно живых виртуальных потоков страниц и этапов конвейера (0 в режиме POOLED). */
+    public int peakVirtualThreads() {
+        return peakVirtualThreads.get();
+    }
+
+    /**
+     * Сумма пиков занятости heap-пулов с начала прогона в килобайтах (оценка сверху: пики пулов не одновременны).
+     */
+    public long peakHeapKb() {
+        long bytes = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            bytes += pool.getPeakUsage().getUsed();
+        }
+        return bytes / 1024;
+    }
+
+    /**
+     * Наибольший RSS процесса (VmRSS) среди замеров за время обхода в килобайтах; -1, если /proc недоступен (не Linux).
+     */
+    public long peakRssKb() {
+        return peakRssKb.get();
+    }
+
+    private void sample() {
+        peakRssKb.accumulateAndGet(rssKb(), Math::max);
+        peakCarrierThreads.accumulateAndGet(carrierThreads(), Math::max);
+    }
+
+    private static long rssKb() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D+", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return -1;
+    }
+
+    // Несущие потоки - платформенные потоки планировщика в группе CarrierThreads; enumerate не снимает стеки
+    private static int carrierThreads() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) root = root.getParent();
+        Thread[] all = new Thread[root.activeCount() + 16];
+        int count = root.enumerate(all, true);
+        int carriers = 0;
+        for (int i = 0; i < count; i++) {
+            ThreadGroup group = all[i].getThreadGroup();
+            if (group != null && CARRIER_GROUP.equals(group.getName())) carriers++;
+        }
+        return carriers;
+    }
+}
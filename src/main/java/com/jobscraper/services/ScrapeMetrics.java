@@ -0,0 +1,136 @@
+package com.jobscraper.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Метрики горячего пути скрапера (Micrometer, доступны через /actuator/metrics и /actuator/prometheus).
+ */
+@Component
+public class ScrapeMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer listingParse;
+    private final Timer jobPageExtract;
+    private final Timer jobDuration;
+    private final DistributionSummary dbBatchSize;
+    private final Timer dbFlush;
+    private final Counter uniqueJobs;
+    private final Counter duplicateJobs;
+    private final Counter jobPageLoads;
+    // метры с тегами регистрируются один раз на значение тега, горячий путь берёт готовый из карты
+    private final Map<TagPair, Timer> httpRequests = new ConcurrentHashMap<>();
+    private final Map<TagPair, Counter> httpRetries = new ConcurrentHashMap<>();
+    private final Map<String, Counter> httpBytes = new ConcurrentHashMap<>();
+    private final Map<String, Timer> permitWaits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> industryPages = new ConcurrentHashMap<>();
+    private final Map<String, Counter> industryJobs = new ConcurrentHashMap<>();
+
+    private record TagPair(String first, String second) {
+    }
+
+    public ScrapeMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.listingParse = Timer.builder("scraper.parse.listing")
+                .description("Потоковый разбор страницы листинга")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.jobPageExtract = Timer.builder("scraper.parse.jobpage")
+                .description("Извлечение функции и описания со страницы вакансии")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.jobDuration = Timer.builder("scraper.job.duration")
+                .description("Время вакансии в конвейере от постановки до записи в очередь БД")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.dbBatchSize = DistributionSummary.builder("scraper.db.batch.size")
+                .description("Записей в одной транзакции писателя")
+                .register(registry);
+        this.dbFlush = Timer.builder("scraper.db.flush")
+                .description("Время записи одной пачки")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.uniqueJobs = Counter.builder("scraper.jobs.unique").register(registry);
+        this.duplicateJobs = Counter.builder("scraper.jobs.duplicate").register(registry);
+        this.jobPageLoads = Counter.builder("scraper.jobpage.loads").register(registry);
+    }
+
+    public void httpRequest(String host, String status, long nanos) {
+        httpRequests.computeIfAbsent(new TagPair(host, status), k -> Timer.builder("scraper.http.requests")
+                .tag("host", k.first())
+                .tag("status", k.second())
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void httpRetry(String host, String reason) {
+        httpRetries.computeIfAbsent(new TagPair(host, reason), k -> Counter.builder("scraper.http.retries")
+                .tag("host", k.first()).tag("reason", k.second()).register(registry)).increment();
+    }
+
+    public void httpBytes(String host, long bytes) {
+        httpBytes.computeIfAbsent(host, h -> Counter.builder("scraper.http.bytes").baseUnit("bytes")
+                .tag("host", h).register(registry)).increment(bytes);
+    }
+
+    public void permitWait(String host, long nanos) {
+        permitWaits.computeIfAbsent(host, h -> Timer.builder("scraper.http.permit.wait")
+                .tag("host", h).register(registry)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void industryPage(String industry) {
+        industryPages.computeIfAbsent(industry, i -> Counter.builder("scraper.pages")
+                .tag("industry", i).register(registry)).increment();
+    }
+
+    public void industryJob(String industry) {
+        industryJobs.computeIfAbsent(industry, i -> Counter.builder("scraper.jobs")
+                .tag("industry", i).register(registry)).increment();
+    }
+
+    /** Первое появление вакансии в прогоне. */
+    public void uniqueJob() {
+        uniqueJobs.increment();
+    }
+
+    /** Та же вакансия в выдаче ещё одной индустрии: страница не грузится, добавляется только индустрия. */
+    public void duplicateJob() {
+        duplicateJobs.increment();
+    }
+
+    /** Загрузка страницы вакансии (из кэша или сети); в паре с scraper.jobs.unique даёт загрузок на вакансию. */
+    public void jobPageLoad() {
+        jobPageLoads.increment();
+    }
+
+    public void listingParse(long nanos) {
+        listingParse.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void jobPageExtract(long nanos) {
+        jobPageExtract.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void jobDuration(long millis) {
+        jobDuration.record(millis, TimeUnit.MILLISECONDS);
+    }
+
+    public void dbFlush(int batchSize, long nanos) {
+        dbBatchSize.record(batchSize);
+        dbFlush.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void gauge(String name, String tagKey, String tagValue, Supplier<Number> value) {
+        Gauge.builder(name, value).tag(tagKey, tagValue).register(registry);
+    }
+}
@@ -0,0 +1,228 @@
+package com.jobscraper.services;
+
+import com.jobscraper.config.ScraperProperties;
+import com.jobscraper.entity.ListingCursor;
+import com.jobscraper.entity.PageCheckpoint;
+import com.jobscraper.entity.ScrapeRun;
+import com.jobscraper.entity.Statistics;
+import com.jobscraper.repository.ListingCursorRepository;
+import com.jobscraper.repository.PageCheckpointRepository;
+import com.jobscraper.repository.ScrapeRunRepository;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Состояние прогонов в БД: запись {@code scrape_run}, курсоры потоков листинга и отметки записанных страниц.
+ * Прогоны не пересекаются: на время прогона берётся advisory-блокировка PostgreSQL на отдельном соединении.
+ * Если процесс умер, соединение закрывается и блокировка снимается сама, а прогон остаётся в статусе RUNNING -
+ * такой прогон следующий запуск продолжает, пропуская страницы с отметками.
+ */
+@Component
+public class ScrapeRuns {
+
+    private final DataSource dataSource;
+    private final ScrapeRunRepository runRepository;
+    private final ListingCursorRepository cursorRepository;
+    private final PageCheckpointRepository checkpointRepository;
+    private final long lockKey;
+
+    private static final long JOIN_POLL_MS = 500;
+
+    public ScrapeRuns(DataSource dataSource, ScrapeRunRepository runRepository, ListingCursorRepository cursorRepository,
+                      PageCheckpointRepository checkpointRepository, ScraperProperties scraper) {
+        this.dataSource = dataSource;
+        this.runRepository = runRepository;
+        this.cursorRepository = cursorRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.lockKey = scraper.run().lockKey();
+    }
+
+    /**
+     * Берёт блокировку и продолжает прерванный прогон в том же режиме или начинает новый.
+     * Прерванные прогоны в другом режиме помечаются ABANDONED. Взявший блокировку распределённого прогона - координатор.
+     *
+     * @return пусто, если прогон уже идёт (в этом или другом процессе)
+     */
+    public Optional<Run> begin(CrawlMode crawlMode, boolean withDescriptions, boolean distributed) {
+        Connection lock = tryLock();
+        if (lock == null) return Optional.empty();
+        try {
+            ScrapeRun resumed = null;
+            for (ScrapeRun interrupted : runRepository.findByStatusOrderByIdDesc(ScrapeRun.Status.RUNNING)) {
+                if (resumed == null && crawlMode.name().equals(interrupted.getCrawlMode())
+                        && interrupted.isWithDescriptions() == withDescriptions && interrupted.isDistributed() == distributed) {
+                    resumed = interrupted;
+                } else {
+                    interrupted.setStatus(ScrapeRun.Status.ABANDONED);
+                    interrupted.setFinishedAt(LocalDateTime.now());
+                    runRepository.save(interrupted);
+                }
+            }
+            if (resumed != null) {
+                resumed.setResumes(resumed.getResumes() + 1);
+                return Optional.of(new Run(runRepository.save(resumed), true, lock));
+            }
+            ScrapeRun run = new ScrapeRun();
+            run.setStatus(ScrapeRun.Status.RUNNING);
+            run.setCrawlMode(crawlMode.name());
+            run.setWithDescriptions(withDescriptions);
+            run.setDistributed(distributed);
+            run.setStartedAt(LocalDateTime.now());
+            return Optional.of(new Run(runRepository.save(run), false, lock));
+        } catch (RuntimeException e) {
+            unlock(lock);
+            throw e;
+        }
+    }
+
+    /**
+     * Присоединяет узел к распределённому прогону, который ведёт координатор в другом процессе.
+     * Ждёт до {@code wait}, пока такой прогон появится, и не берёт блокировку.
+     */
+    public Optional<Run> join(CrawlMode crawlMode, boolean withDescriptions, Duration wait) throws InterruptedException {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            for (ScrapeRun running : runRepository.findByStatusOrderByIdDesc(ScrapeRun.Status.RUNNING)) {
+                if (running.isDistributed() && crawlMode.name().equals(running.getCrawlMode())
+                        && running.isWithDescriptions() == withDescriptions) {
+                    return Optional.of(new Run(running, false, null));
+                }
+            }
+            if (System.nanoTime() >= deadline) return Optional.empty();
+            Thread.sleep(JOIN_POLL_MS);
+        }
+    }
+
+    /** Прогон, записавший эти statistics, закончился FAILED: часть страниц так и не загрузилась. */
+    public boolean failed(Statistics stats) {
+        return stats.getId() != null && runRepository.existsByStatisticsIdAndStatus(stats.getId(), ScrapeRun.Status.FAILED);
+    }
+
+    private Connection tryLock() {
+        try {
+            Connection connection = dataSource.getConnection();
+            try (PreparedStatement ps = connection.prepareStatement("select pg_try_advisory_lock(?)")) {
+                ps.setLong(1, lockKey);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next() && rs.getBoolean(1)) return connection;
+                }
+            }
+            connection.close();
+            return null;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось взять блокировку прогона", e);
+        }
+    }
+
+    private void unlock(Connection connection) {
+        try (connection; PreparedStatement ps = connection.prepareStatement("select pg_advisory_unlock(?)")) {
+            ps.setLong(1, lockKey);
+            ps.execute();
+        } catch (SQLException e) {
+            System.err.println("Не удалось снять блокировку прогона: " + e.getMessage());
+        }
+    }
+
+    /** Текущий прогон; закрытие снимает блокировку (если она у этого узла), статус при этом не меняется. */
+    public final class Run implements AutoCloseable {
+
+        private final ScrapeRun entity;
+        private final boolean resumed;
+        private final Connection lock;
+        private final Map<String, ListingCursor> cursors = new ConcurrentHashMap<>();
+        private final Set<String> donePages = new HashSet<>();
+
+        private Run(ScrapeRun entity, boolean resumed, Connection lock) {
+            this.entity = entity;
+            this.resumed = resumed;
+            this.lock = lock;
+            if (resumed) {
+                for (ListingCursor cursor : cursorRepository.findByRunId(entity.getId())) {
+                    cursors.put(cursor.getListing(), cursor);
+                }
+                for (PageCheckpoint checkpoint : checkpointRepository.findByRunId(entity.getId())) {
+                    donePages.add(pageKey(checkpoint.getListing(), checkpoint.getPage()));
+                }
+            }
+        }
+
+        /** Узел держит блокировку прогона: он начал прогон и он его завершает. */
+        public boolean coordinator() {
+            return lock != null;
+        }
+
+        public long id() {
+            return entity.getId();
+        }
+
+        /** Прогон продолжен после прерывания: часть вакансий записана до него и в этом запуске не встретится. */
+        public boolean resumed() {
+            return resumed;
+        }
+
+        /** Сколько раз прогон продолжали после прерывания. */
+        public int resumes() {
+            return entity.getResumes();
+        }
+
+        public int donePageCount() {
+            return donePages.size();
+        }
+
+        /** Число вакансий потока из сохранённого курсора или null, если курсора нет или размер страницы другой. */
+        public Integer knownCount(String listing, int hitsPerPage) {
+            ListingCursor cursor = cursors.get(listing);
+            return cursor != null && cursor.getHitsPerPage() == hitsPerPage ? cursor.getCountJobs() : null;
+        }
+
+        public boolean isDone(String listing, int page) {
+            return donePages.contains(pageKey(listing, page));
+        }
+
+        public void saveCursor(String listing, int hitsPerPage, int count) {
+            if (knownCount(listing, hitsPerPage) != null) return;
+            ListingCursor cursor = cursors.get(listing);
+            if (cursor == null) {
+                cursor = new ListingCursor();
+                cursor.setRunId(entity.getId());
+                cursor.setListing(listing);
+            }
+            cursor.setHitsPerPage(hitsPerPage);
+            cursor.setCountJobs(count);
+            cursors.put(listing, cursorRepository.save(cursor));
+        }
+
+        public PageCheckpoint checkpoint(String listing, int page) {
+            return new PageCheckpoint(entity.getId(), listing, page);
+        }
+
+        /** Прогон дошёл до конца: COMPLETED или FAILED, если часть страниц не загрузилась. */
+        public void finish(Statistics stats, boolean failed) {
+            entity.setStatus(failed ? ScrapeRun.Status.FAILED : ScrapeRun.Status.COMPLETED);
+            entity.setFinishedAt(LocalDateTime.now());
+            entity.setStatisticsId(stats.getId());
+            runRepository.save(entity);
+        }
+
+        @Override
+        public void close() {
+            if (lock != null) unlock(lock);
+        }
+    }
+
+    private static String pageKey(String listing, int page) {
+        return listing + "#" + page;
+    }
+}
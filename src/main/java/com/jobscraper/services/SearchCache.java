@@ -0,0 +1,88 @@
+package com.jobscraper.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jobscraper.config.SearchProperties;
+import com.jobscraper.repository.StatisticsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Кэш готовых JSON-ответов API чтения (Caffeine, вытеснение по суммарному объёму).
+ * Данные меняются только прогоном скрапера, поэтому ключ - нормализованный запрос плюс версия данных,
+ * а версия - id последней записи statistics, которая сохраняется после записи всех вакансий прогона.
+ * Прогон в этом процессе сообщает новую версию сразу ({@link #runCommitted}), прогоны других процессов
+ * замечаются опросом max(id) не чаще раза в {@code scraper.search.cache.version-check-ms}.
+ * Ответ, начатый до смены версии, попадает под старый ключ и после неё уже не отдаётся.
+ */
+@Component
+public class SearchCache {
+
+    private record Key(String kind, long version, JobSearchQuery query) {
+    }
+
+    private final StatisticsRepository statisticsRepository;
+    private final boolean enabled;
+    private final int maxLimit;
+    private final long versionCheckMs;
+    private final Cache<Key, byte[]> cache;
+
+    private volatile long version = -1;
+    private volatile long versionCheckedAt;
+
+    public SearchCache(StatisticsRepository statisticsRepository, MeterRegistry registry, SearchProperties search) {
+        SearchProperties.Cache settings = search.cache();
+        this.statisticsRepository = statisticsRepository;
+        this.enabled = settings.enabled();
+        this.maxLimit = settings.maxLimit();
+        this.versionCheckMs = settings.versionCheckMs();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(settings.maxBytes())
+                .weigher((Key key, byte[] body) -> body.length)
+                .expireAfterWrite(Duration.ofMinutes(settings.ttlMinutes())) // страховка на случай прогона, упавшего до записи statistics
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "jobs.search");
+    }
+
+    /** Страницы больше max-limit отдаются потоком из БД мимо кэша. */
+    public boolean cacheable(JobSearchQuery query) {
+        return enabled && query.limit() <= maxLimit;
+    }
+
+    /**
+     * Возвращает закэшированный ответ или строит его через {@code render}.
+     * Одинаковые запросы, пришедшие одновременно, строят ответ один раз.
+     */
+    public byte[] get(String kind, JobSearchQuery query, Supplier<byte[]> render) {
+        if (!enabled) return render.get();
+        return cache.get(new Key(kind, version(), query), key -> render.get());
+    }
+
+    /** Прогон сохранил statistics с этим id: всё, что закэшировано раньше, больше не актуально. */
+    public synchronized void runCommitted(long runVersion) {
+        if (runVersion > version) {
+            version = runVersion;
+            cache.invalidateAll();
+        }
+        versionCheckedAt = System.currentTimeMillis();
+    }
+
+    /** Данные поменялись вне прогона (фоновая дозагрузка): версия та же, закэшированные ответы сбрасываются. */
+    public void dataChanged() {
+        cache.invalidateAll();
+    }
+
+    public long version() {
+        long now = System.currentTimeMillis();
+        if (version < 0 || now - versionCheckedAt >= versionCheckMs) {
+            Long latest = statisticsRepository.findLatestId();
+            runCommitted(latest != null ? latest : 0);
+        }
+        return version;
+    }
+}
@@ -0,0 +1,46 @@
+package com.jobscraper.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Объекты схемы для поиска /jobs, которые ddl-auto=update не умеет: генерируемая колонка {@code tsvector}
+ * с GIN-индексом и индекс для keyset-пагинации. Все операторы идемпотентны; первое добавление колонки
+ * переписывает таблицу item, дальше запуск ничего не меняет.
+ */
+@Component
+public class SearchSchema {
+
+    private static final List<String> STATEMENTS = List.of(
+            "alter table item add column if not exists searchVector tsvector generated always as ("
+                    + "setweight(to_tsvector('english', coalesce(positionName, '')), 'A') || "
+                    + "setweight(to_tsvector('english', coalesce(description, '')), 'B')) stored",
+            "create index if not exists idx_item_search on item using gin (searchVector)",
+            // ключ выдачи /jobs: вакансии без даты - в конце (см. JobSearchService.POSTED_KEY)
+            "drop index if exists idx_item_posted_keyset",
+            "create index if not exists idx_item_posted_key on item ((coalesce(postedDate, '-infinity'::date)) desc, id desc)"
+                    + " where deleted = false",
+            "create index if not exists idx_item_labor_function on item (laborFunction)",
+            "create index if not exists idx_organization_name on organization (name)");
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    public SearchSchema(TransactionTemplate transactionTemplate, EntityManager entityManager) {
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @PostConstruct
+    public void apply() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String statement : STATEMENTS) {
+                entityManager.createNativeQuery(statement).executeUpdate();
+            }
+        });
+    }
+}
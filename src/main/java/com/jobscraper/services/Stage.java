@@ -0,0 +1,76 @@
+package com.jobscraper.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Этап конвейера: ограниченная очередь и свой набор воркеров.
+ * {@link #submit} блокируется, когда очередь полна, - так медленный этап притормаживает предыдущий.
+ */
+public class Stage<T> {
+
+    @FunctionalInterface
+    public interface Handler<T> {
+        void handle(T task) throws InterruptedException;
+    }
+
+    private final String name;
+    private final BlockingQueue<T> queue;
+    private final int workers;
+    private final ExecutorService executor;
+    private final Handler<T> handler;
+
+    public Stage(String name, int capacity, int workers, ExecutorService executor, Handler<T> handler) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.workers = workers;
+        this.executor = executor;
+        this.handler = handler;
+    }
+
+    public void start() {
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+    }
+
+    public void submit(T task) throws InterruptedException {
+        queue.put(task);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    public int capacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            T task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                handler.handle(task);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка на этапе " + name + ": " + e);
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.jobscraper.services;
+
+import org.jsoup.parser.Parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Однопроходный сканер UTF-8 байтов страницы без построения DOM.
+ * Ищет открывающие {@code <div>} с нужными классами, собирает текст до парного {@code </div>}
+ * и останавливается, как только найдены оба блока. Текст нормализуется так же, как Jsoup {@code text()}:
+ * блочные теги и {@code <br>} дают пробел, пробельные символы схлопываются.
+ * Если вторая {@code div.sc-beqWaB.bpXRKw} не найдена, возвращает null.
+ */
+public class StreamingJobPageExtractor implements JobPageExtractor {
+
+    private static final String BASE_CLASS = "sc-beqWaB";
+    private static final String LABOR_CLASS = "bpXRKw";
+    private static final String DESCRIPTION_CLASS = "fmCCHr";
+    private static final char NBSP = (char) 160;
+
+    private static final Set<String> BLOCK_TAGS = Set.of(
+            "address", "article", "aside", "blockquote", "br", "dd", "div", "dl", "dt", "fieldset", "figcaption",
+            "figure", "footer", "form", "h1", "h2", "h3", "h4", "h5", "h6", "header", "hr", "li", "main", "nav",
+            "ol", "p", "pre", "section", "table", "tbody", "td", "tfoot", "th", "thead", "tr", "ul");
+
+    @Override
+    public JobPageDetails extract(byte[] html, String url) {
+        int laborSeen = 0;
+        String laborFunction = null;
+        String description = null;
+        boolean descriptionSeen = false;
+        Tag tag = new Tag(); // один изменяемый объект на весь проход
+
+        int i = 0;
+        int n = html.length;
+        while (i < n && (laborFunction == null || !descriptionSeen)) {
+            int lt = indexOf(html, (byte) '<', i, n);
+            if (lt < 0) break;
+            if (startsWith(html, lt, "<!--")) {
+                i = skipComment(html, lt, n);
+                continue;
+            }
+            if (!readTag(html, lt, n, tag)) {
+                i = lt + 1;
+                continue;
+            }
+            i = tag.end;
+            if (tag.closing) continue;
+            if (tag.is("script") || tag.is("style")) {
+                i = skipRawText(html, tag.end, n, tag.name());
+                continue;
+            }
+            if (!tag.is("div") || tag.classes == null || !hasClass(tag.classes, BASE_CLASS)) continue;
+
+            if (laborFunction == null && hasClass(tag.classes, LABOR_CLASS)) {
+                if (++laborSeen == 2) {
+                    laborFunction = collectText(html, tag.end, n);
+                }
+            }
+            if (!descriptionSeen && hasClass(tag.classes, DESCRIPTION_CLASS)) {
+                descriptionSeen = true;
+                String text = collectText(html, tag.end, n);
+                description = text.isEmpty() ? null : text;
+            }
+        }
+
+        if (laborFunction == null) return null;
+        return new JobPageDetails(laborFunction, description);
+    }
+
+    /** Текст элемента от конца открывающего тега до парного {@code </div>}. */
+    private static String collectText(byte[] html, int from, int n) {
+        byte[] out = new byte[256];
+        int len = 0;
+        int depth = 1;
+        int i = from;
+        Tag tag = new Tag();
+        while (i < n) {
+            byte b = html[i];
+            if (b != '<') {
+                if (len == out.length) out = Arrays.copyOf(out, len * 2);
+                out[len++] = b;
+                i++;
+                continue;
+            }
+            if (startsWith(html, i, "<!--")) {
+                i = skipComment(html, i, n);
+                continue;
+            }
+            if (!readTag(html, i, n, tag)) {
+                if (len == out.length) out = Arrays.copyOf(out, len * 2);
+                out[len++] = b;
+                i++;
+                continue;
+            }
+            i = tag.end;
+            if (!tag.closing && (tag.is("script") || tag.is("style"))) {
+                i = skipRawText(html, tag.end, n, tag.name());
+                continue;
+            }
+            if (tag.is("div") && !tag.selfClosing) {
+                depth += tag.closing ? -1 : 1;
+                if (depth == 0) break;
+            }
+            if (BLOCK_TAGS.contains(tag.name())) {
+                if (len == out.length) out = Arrays.copyOf(out, len * 2);
+                out[len++] = ' ';
+            }
+        }
+        String raw = new String(out, 0, len, StandardCharsets.UTF_8);
+        return normalizeWhitespace(unescape(raw));
+    }
+
+    /**
+     * Частые сущности разбираем сами: Parser.unescapeEntities заводит 32K-символьный буфер на каждый вызов.
+     * Если встретилась редкая именованная сущность, отдаём строку Jsoup целиком.
+     */
+    private static String unescape(String s) {
+        int amp = s.indexOf('&');
+        if (amp < 0) return s;
+        StringBuilder sb = new StringBuilder(s.length());
+        sb.append(s, 0, amp);
+        int i = amp;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c != '&') {
+                sb.append(c);
+                i++;
+                continue;
+            }
+            int semi = s.indexOf(';', i);
+            if (semi < 0 || semi - i > 10) {
+                sb.append(c);
+                i++;
+                continue;
+            }
+            String entity = s.substring(i + 1, semi);
+            switch (entity) {
+                case "amp" -> sb.append('&');
+                case "lt" -> sb.append('<');
+                case "gt" -> sb.append('>');
+                case "quot" -> sb.append('"');
+                case "apos" -> sb.append('\'');
+                case "nbsp" -> sb.append(NBSP);
+                default -> {
+                    if (entity.startsWith("#")) {
+                        try {
+                            int code = entity.length() > 1 && (entity.charAt(1) == 'x' || entity.charAt(1) == 'X')
+                                    ? Integer.parseInt(entity.substring(2), 16)
+                                    : Integer.parseInt(entity.substring(1));
+                            sb.appendCodePoint(code);
+                        } catch (IllegalArgumentException e) {
+                            sb.append('&').append(entity).append(';');
+                        }
+                    } else {
+                        return Parser.unescapeEntities(s, false);
+                    }
+                }
+            }
+            i = semi + 1;
+        }
+        return sb.toString();
+    }
+
+    private static String normalizeWhitespace(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == NBSP) {
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace) sb.append(' ');
+                pendingSpace = false;
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class Tag {
+        byte[] html;
+        int nameStart;
+        int nameEnd;
+        String classes;
+        boolean closing;
+        boolean selfClosing;
+        int end;
+
+        boolean is(String name) {
+            if (nameEnd - nameStart != name.length()) return false;
+            return startsWithIgnoreCase(html, nameStart, name);
+        }
+
+        String name() {
+            return lowerAscii(html, nameStart, nameEnd);
+        }
+    }
+
+    /** Разбирает тег, начинающийся с {@code <} в позиции {@code lt}, в {@code tag}; false, если это не тег. */
+    private static boolean readTag(byte[] html, int lt, int n, Tag tag) {
+        int i = lt + 1;
+        tag.classes = null;
+        tag.closing = false;
+        tag.selfClosing = false;
+        if (i < n && html[i] == '/') {
+            tag.closing = true;
+            i++;
+        }
+        int nameStart = i;
+        while (i < n && isNameChar(html[i])) i++;
+        if (i == nameStart) return false;
+        tag.html = html;
+        tag.nameStart = nameStart;
+        tag.nameEnd = i;
+
+        while (i < n) {
+            byte b = html[i];
+            if (b == '>') {
+                tag.end = i + 1;
+                return true;
+            }
+            if (b == '/') {
+                tag.selfClosing = true;
+                i++;
+                continue;
+            }
+            if (isSpace(b)) {
+                i++;
+                continue;
+            }
+            int attrStart = i;
+            while (i < n && !isSpace(html[i]) && html[i] != '=' && html[i] != '>' && html[i] != '/') i++;
+            boolean isClass = i - attrStart == 5 && startsWithIgnoreCase(html, attrStart, "class");
+            while (i < n && isSpace(html[i])) i++;
+            if (i < n && html[i] == '=') {
+                i++;
+                while (i < n && isSpace(html[i])) i++;
+                int valueStart;
+                int valueEnd;
+                if (i < n && (html[i] == '"' || html[i] == '\'')) {
+                    byte quote = html[i];
+                    valueStart = i + 1;
+                    valueEnd = indexOf(html, quote, valueStart, n);
+                    if (valueEnd < 0) return false;
+                    i = valueEnd + 1;
+                } else {
+                    valueStart = i;
+                    while (i < n && !isSpace(html[i]) && html[i] != '>') i++;
+                    valueEnd = i;
+                }
+                if (isClass) {
+                    tag.classes = new String(html, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8);
+                }
+            }
+            tag.selfClosing = false;
+        }
+        return false;
+    }
+
+    private static boolean hasClass(String classes, String name) {
+        int from = 0;
+        while (true) {
+            int at = classes.indexOf(name, from);
+            if (at < 0) return false;
+            int end = at + name.length();
+            boolean startOk = at == 0 || Character.isWhitespace(classes.charAt(at - 1));
+            boolean endOk = end == classes.length() || Character.isWhitespace(classes.charAt(end));
+            if (startOk && endOk) return true;
+            from = at + 1;
+        }
+    }
+
+    private static int skipComment(byte[] html, int lt, int n) {
+        for (int i = lt + 4; i + 2 < n; i++) {
+            if (html[i] == '-' && html[i + 1] == '-' && html[i + 2] == '>') return i + 3;
+        }
+        return n;
+    }
+
+    private static int skipRawText(byte[] html, int from, int n, String name) {
+        String close = "</" + name;
+        for (int i = indexOf(html, (byte) '<', from, n); i >= 0; i = indexOf(html, (byte) '<', i + 1, n)) {
+            if (startsWithIgnoreCase(html, i, close)) {
+                int gt = indexOf(html, (byte) '>', i, n);
+                return gt < 0 ? n : gt + 1;
+            }
+        }
+        return n;
+    }
+
+    private static int indexOf(byte[] html, byte b, int from, int n) {
+        for (int i = from; i < n; i++) {
+            if (html[i] == b) return i;
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(byte[] html, int at, String s) {
+        if (at + s.length() > html.length) return false;
+        for (int k = 0; k < s.length(); k++) {
+            if (html[at + k] != s.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    private static boolean startsWithIgnoreCase(byte[] html, int at, String s) {
+        if (at + s.length() > html.length) return false;
+        for (int k = 0; k < s.length(); k++) {
+            int c = html[at + k];
+            if (c >= 'A' && c <= 'Z') c += 32;
+            if (c != s.charAt(k)) return false;
+        }
+        return true;
+    }
+
+    private static String lowerAscii(byte[] html, int from, int to) {
+        char[] chars = new char[to - from];
+        for (int k = 0; k < chars.length; k++) {
+            int c = html[from + k] & 0xff;
+            chars[k] = (char) (c >= 'A' && c <= 'Z' ? c + 32 : c);
+        }
+        return new String(chars);
+    }
+
+    private static boolean isNameChar(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '-';
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+}
@@ -0,0 +1,194 @@
+package com.jobscraper.services;
+
+import com.jobscraper.config.DistributedProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Общая очередь страниц распределённого прогона в PostgreSQL ({@code work_unit}).
+ * Узел забирает страницу через {@code FOR UPDATE SKIP LOCKED}, поэтому узлы не ждут друг друга и не берут одну страницу дважды.
+ * Страница выдаётся в аренду: узел продлевает аренду, пока обрабатывает её, а страница упавшего узла
+ * после окончания аренды возвращается в очередь. Готовой страница считается, когда есть её {@code page_checkpoint} -
+ * отметка пишется в одной транзакции с вакансиями страницы.
+ * Вакансию пишет та страница, на которой она встретилась первой ({@code claimed_job}), индустрии всех встреч
+ * собираются в {@code job_sighting}: повторная обработка страницы не создаёт второй Item.
+ */
+@Component
+public class WorkQueue {
+
+    /** Условие "страница ещё не записана" для строки {@code w} из work_unit. */
+    private static final String NOT_DONE = "not exists (select 1 from page_checkpoint c "
+            + "where c.runId = w.runId and c.listing = w.listing and c.page = w.page)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+
+    public WorkQueue(JdbcTemplate jdbcTemplate, DistributedProperties distributed) {
+        String nodeId = distributed.nodeId();
+        this.jdbcTemplate = jdbcTemplate;
+        // по умолчанию pid@host плюс случайный хвост: несколько контекстов в одной JVM - разные узлы
+        this.nodeId = nodeId.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8)
+                : nodeId;
+        this.leaseSeconds = distributed.leaseSeconds();
+        this.maxAttempts = Math.max(1, distributed.maxAttempts());
+    }
+
+    /** @param attempts попытка, начиная с 1; больше 1 - страницу уже брал узел, потерявший аренду или не загрузивший её */
+    public record Unit(long id, String listing, int page, int hitsPerPage, int attempts) {
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public long leaseSeconds() {
+        return leaseSeconds;
+    }
+
+    /** Первые страницы всех потоков листинга; уже поставленные страницы не дублируются. */
+    public void seed(long runId, Collection<String> listings, int hitsPerPage) {
+        for (String listing : listings) {
+            addPages(runId, listing, hitsPerPage, 0, 1);
+        }
+    }
+
+    /** Страницы {@code from..to-1} потока: их ставит узел, прочитавший первую страницу. */
+    public void addPages(long runId, String listing, int hitsPerPage, int from, int to) {
+        if (from >= to) return;
+        jdbcTemplate.update("insert into work_unit (runId, listing, page, hitsPerPage, status, attempts) "
+                        + "select ?, ?, p, ?, 'PENDING', 0 from generate_series(?, ?) p on conflict do nothing",
+                runId, listing, hitsPerPage, from, to - 1);
+    }
+
+    /** Есть ли у прогона страницы в очереди: узел, присоединившийся раньше засева, ждёт координатора. */
+    public boolean seeded(long runId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from work_unit where runId = ?)", Boolean.class, runId));
+    }
+
+    /**
+     * Забирает свободную страницу или страницу с истёкшей арендой.
+     * Заблокированные другими узлами строки пропускаются ({@code SKIP LOCKED}), а не ждут.
+     */
+    public Optional<Unit> claim(long runId) {
+        List<Unit> units = jdbcTemplate.query("update work_unit set status = 'CLAIMED', node = ?, "
+                        + "leaseUntil = localtimestamp + ? * interval '1 second', attempts = attempts + 1 "
+                        + "where id = (select w.id from work_unit w where w.runId = ? "
+                        + "and (w.status = 'PENDING' or (w.status = 'CLAIMED' and w.leaseUntil < localtimestamp)) "
+                        + "and " + NOT_DONE + " order by w.id limit 1 for update skip locked) "
+                        + "returning id, listing, page, hitsPerPage, attempts",
+                (rs, i) -> new Unit(rs.getLong("id"), rs.getString("listing"), rs.getInt("page"), rs.getInt("hitsPerPage"),
+                        rs.getInt("attempts")),
+                nodeId, leaseSeconds, runId);
+        return units.stream().findFirst();
+    }
+
+    /** Продлевает аренду страниц, которые этот узел ещё обрабатывает. */
+    public void renew(Collection<Long> unitIds) {
+        if (unitIds.isEmpty()) return;
+        jdbcTemplate.update("update work_unit set leaseUntil = localtimestamp + ? * interval '1 second' "
+                        + "where node = ? and status = 'CLAIMED' and id = any(?)",
+                leaseSeconds, nodeId, unitIds.toArray(Long[]::new));
+    }
+
+    /** Страница не загрузилась: обратно в очередь или FAILED, если попытки кончились. */
+    public void fail(Unit unit) {
+        jdbcTemplate.update("update work_unit set status = case when attempts >= ? then 'FAILED' else 'PENDING' end, "
+                + "node = null, leaseUntil = null where id = ? and node = ?", maxAttempts, unit.id(), nodeId);
+    }
+
+    /** Страниц, которые ещё не записаны и не признаны FAILED (в том числе в обработке у других узлов). */
+    public int remaining(long runId) {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from work_unit w where w.runId = ? "
+                + "and w.status <> 'FAILED' and " + NOT_DONE, Integer.class, runId);
+        return count != null ? count : 0;
+    }
+
+    public int failedCount(long runId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from work_unit where runId = ? and status = 'FAILED'", Integer.class, runId);
+        return count != null ? count : 0;
+    }
+
+    /** Узлов, которым доставались страницы прогона. */
+    public int nodeCount(long runId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(distinct node) from work_unit where runId = ?", Integer.class, runId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Отмечает встречу вакансии в индустрии и решает, кто пишет Item: страница, где вакансия встретилась первой.
+     * Её повторная обработка (на любом узле) снова получает владение; {@code outcome} остаётся от первой обработки.
+     *
+     * @param outcome ADDED/UPDATED/UNCHANGED по снимку узла (null без инкрементального режима)
+     * @return true, если Item пишет эта страница
+     */
+    public boolean claimJob(long runId, String jobKey, String url, String industry, String listing, int page, String outcome) {
+        List<Integer> owned = jdbcTemplate.queryForList("with sighting as ("
+                        + "insert into job_sighting (runId, jobKey, industry) values (?, ?, ?) on conflict do nothing) "
+                        + "insert into claimed_job (runId, jobKey, url, listing, page, outcome) values (?, ?, ?, ?, ?, ?) "
+                        + "on conflict (runId, jobKey) do update set outcome = claimed_job.outcome "
+                        + "where claimed_job.listing = excluded.listing and claimed_job.page = excluded.page "
+                        + "returning 1",
+                Integer.class, runId, jobKey, industry, runId, jobKey, url, listing, page, outcome);
+        return !owned.isEmpty();
+    }
+
+    /** Сколько вакансий прогона добавлено, обновлено и не изменилось (по решениям владельцев). */
+    public Map<String, Integer> outcomes(long runId) {
+        Map<String, Integer> outcomes = new HashMap<>();
+        jdbcTemplate.query("select outcome, count(*) from claimed_job where runId = ? and outcome is not null group by outcome",
+                rs -> {
+                    outcomes.put(rs.getString(1), rs.getInt(2));
+                }, runId);
+        return outcomes;
+    }
+
+    public int sightingCount(long runId) {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from job_sighting where runId = ?", Integer.class, runId);
+        return count != null ? count : 0;
+    }
+
+    public int jobCount(long runId) {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from claimed_job where runId = ?", Integer.class, runId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Собирает {@code item.jobFunctions} из встреч всех узлов одним UPDATE. Порядок индустрий тот же,
+     * что у {@link JobMapper#jobFunctions} (побайтовый, collate "C").
+     *
+     * @param keepWritten прогон неполный: индустрии только добавляются к уже записанным
+     */
+    public int mergeJobFunctions(long runId, boolean keepWritten) {
+        return jdbcTemplate.update("update item i set jobFunctions = f.functions from ("
+                        + "select u.url, string_agg(u.industry, ', ' order by u.industry) functions "
+                        + "from (select c.url, s.industry collate \"C\" industry from claimed_job c "
+                        + "join job_sighting s on s.runId = c.runId and s.jobKey = c.jobKey where c.runId = ? "
+                        + "union select c.url, unnest(string_to_array(it.jobFunctions, ', ')) from claimed_job c "
+                        + "join item it on it.url = c.url where c.runId = ? and ?) u "
+                        + "where u.industry <> '' group by u.url) f "
+                        + "where i.url = f.url and i.jobFunctions is distinct from f.functions",
+                runId, runId, keepWritten);
+    }
+
+    /** Мягко удаляет вакансии, которые не встретились ни одному узлу прогона; возвращает удалённые для ленты изменений. */
+    public List<ChangeFeed.Removed> softDeleteUnseen(long runId) {
+        return jdbcTemplate.query("update item i set deleted = true where i.deleted = false "
+                        + "and not exists (select 1 from claimed_job c where c.runId = ? and c.url = i.url) "
+                        + "returning i.id, i.url, i.contentHash",
+                (rs, n) -> new ChangeFeed.Removed(rs.getLong(1), rs.getString(2), rs.getString(3)), runId);
+    }
+}
@@ -0,0 +1,204 @@
+package com.jobscraper.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jobscraper.config.DistributedProperties;
+import com.jobscraper.config.EnrichmentProperties;
+import com.jobscraper.config.HttpProperties;
+import com.jobscraper.config.PipelineProperties;
+import com.jobscraper.config.ScraperProperties;
+import com.jobscraper.entity.ListPage;
+import com.jobscraper.entity.Statistics;
+import com.jobscraper.repository.ItemRepository;
+import com.jobscraper.repository.ListPageRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Конвейер листинга на локальной подмене Getro, где {@code results.count} идёт после массива jobs.
+ * Очереди этапов (1 место, 1 воркер) намного меньше вакансий на страницах в работе, так что чтение листинга
+ * всё время упирается в очередь parse.
+ */
+class JobDataServicePipelineTest {
+
+    private static final List<String> INDUSTRIES = List.of("Design", "Legal");
+    private static final int JOBS_PER_INDUSTRY = 150; // три страницы по 50
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Queue<ListPage> listPages = new ConcurrentLinkedQueue<>();
+
+    private HttpServer server;
+    private String baseUrl;
+    private ListPageRepository listPageRepository;
+    private PersistenceSink persistenceSink;
+    private ChangeFeed changeFeed;
+    private ScrapeRuns scrapeRuns;
+    private ScrapeMetrics metrics;
+    private JobDataService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/jobs", this::listing);
+        server.createContext("/page", this::jobPage);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        listPageRepository = mock(ListPageRepository.class);
+        persistenceSink = mock(PersistenceSink.class);
+        when(persistenceSink.database()).thenReturn(true);
+        doAnswer(invocation -> listPages.add(invocation.getArgument(0))).when(persistenceSink).add(any(ListPage.class));
+
+        scrapeRuns = mock(ScrapeRuns.class);
+        ScrapeRuns.Run run = mock(ScrapeRuns.Run.class);
+        when(scrapeRuns.begin(any(), anyBoolean(), anyBoolean())).thenReturn(Optional.of(run));
+        when(run.knownCount(any(), anyInt())).thenReturn(null); // новый прогон: курсоров нет
+        changeFeed = mock(ChangeFeed.class);
+        when(changeFeed.commit(any(), any())).thenAnswer(invocation -> {
+            Statistics stats = invocation.getArgument(0);
+            stats.setId(1L);
+            return stats;
+        });
+
+        metrics = new ScrapeMetrics(new SimpleMeterRegistry());
+    }
+
+    private JobDataService service(OutboundHttp outboundHttp, JobPageFetcher jobPageFetcher,
+                                   EnrichmentProperties.Mode enrichment) {
+        ScraperProperties scraper = new ScraperProperties(true, 4, ExecutionMode.POOLED, INDUSTRIES, baseUrl,
+                ScraperProperties.Extractor.STREAMING, new ScraperProperties.Api(baseUrl + "/jobs"),
+                new ScraperProperties.Crawl(CrawlMode.PER_INDUSTRY, 100), new ScraperProperties.Run(false, 4242001),
+                new ScraperProperties.Log(100));
+        PipelineProperties pipeline = new PipelineProperties(new PipelineProperties.Parse(1, 1),
+                new PipelineProperties.Enrich(1, 1), 60_000);
+
+        service = new JobDataService(listPageRepository, mock(ItemRepository.class), objectMapper,
+                HttpClient.newHttpClient(), outboundHttp, jobPageFetcher, persistenceSink, mock(DictionaryCache.class), mock(SearchCache.class),
+                mock(RunExport.class), mock(JobEnrichment.class), changeFeed, scrapeRuns, mock(WorkQueue.class), metrics,
+                scraper, pipeline, new DistributedProperties(false, "", 60, 3, 30, 1000),
+                new EnrichmentProperties(enrichment, 1, 1, 1, 1, 1));
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) service.shutdownExecutors();
+        server.stop(0);
+    }
+
+    @Test
+    void countAfterJobsDoesNotBlockParseWorkers() {
+        service(new OutboundHttp(metrics, new HttpProperties(8, 1, 64, 2000, 1, 500, 30000)), mock(JobPageFetcher.class),
+                EnrichmentProperties.Mode.BACKGROUND);
+        Statistics stats = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> service.fetchAndSaveAllListPages());
+
+        assertNotNull(stats);
+        assertEquals(INDUSTRIES.size() * JOBS_PER_INDUSTRY, stats.getTotalJobsParsed());
+        assertEquals(INDUSTRIES.size() * JOBS_PER_INDUSTRY, listPages.size());
+        for (String industry : INDUSTRIES) {
+            // задачи записали count, известный на момент разбора; итоговый дописывается после прогона
+            verify(listPageRepository).updateCountJobsByJobFunction(industry, JOBS_PER_INDUSTRY);
+        }
+    }
+
+    /**
+     * INLINE: страницы вакансий идут через тот же хост и тот же лимит (одно разрешение), что и листинг.
+     * Чтение листинга, ждущее места в очереди parse под разрешением, заперло бы воркера enrich, ждущего разрешения.
+     */
+    @Test
+    void inlineEnrichmentOnSharedHostDoesNotHoldListingPermit() throws Exception {
+        OutboundHttp outboundHttp = new OutboundHttp(metrics, new HttpProperties(1, 1, 1, 60_000, 1, 500, 30000));
+        HttpClient client = HttpClient.newHttpClient();
+        JobPageFetcher jobPageFetcher = mock(JobPageFetcher.class);
+        when(jobPageFetcher.load(any())).thenAnswer(invocation -> outboundHttp.execute("127.0.0.1", () -> {
+            HttpResponse<String> r = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/page")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return OutboundHttp.Outcome.ok(r.statusCode(), new JobPageDetails("Engineering", r.body()));
+        }).body());
+        service(outboundHttp, jobPageFetcher, EnrichmentProperties.Mode.INLINE);
+
+        Statistics stats = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> service.fetchAndSaveAllListPages(true));
+
+        assertNotNull(stats);
+        assertEquals(INDUSTRIES.size() * JOBS_PER_INDUSTRY, stats.getTotalJobsParsed());
+        verify(jobPageFetcher, times(INDUSTRIES.size() * JOBS_PER_INDUSTRY)).load(any());
+    }
+
+    /** Страница листинга индустрии из тела запроса; count - последним полем results. */
+    private void listing(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        int page = request.path("page").asInt();
+        int hitsPerPage = request.path("hitsPerPage").asInt();
+        String industry = request.path("filters").path("job_functions").path(0).asText();
+        int offset = INDUSTRIES.indexOf(industry) * JOBS_PER_INDUSTRY;
+
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode results = response.putObject("results");
+        ArrayNode jobs = results.putArray("jobs");
+        for (int i = page * hitsPerPage; i < Math.min(JOBS_PER_INDUSTRY, (page + 1) * hitsPerPage); i++) {
+            long id = offset + i + 1;
+            ObjectNode job = jobs.addObject();
+            job.put("id", id);
+            job.put("slug", "job-" + id);
+            job.put("title", "Job " + id);
+            job.put("url", "https://example.com/apply/" + id);
+            job.put("created_at", 1_700_000_000L);
+            job.putArray("job_functions").add(industry);
+            ObjectNode organization = job.putObject("organization");
+            organization.put("id", id % 10 + 1);
+            organization.put("slug", "org-" + (id % 10 + 1));
+            organization.put("name", "Org " + (id % 10 + 1));
+        }
+        results.put("count", JOBS_PER_INDUSTRY);
+
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void jobPage(HttpExchange exchange) throws IOException {
+        byte[] body = "<html><body>Job</body></html>".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
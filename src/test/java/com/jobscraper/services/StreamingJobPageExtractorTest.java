@@ -0,0 +1,103 @@
+package com.jobscraper.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Потоковый сканер должен давать то же, что Jsoup DOM: функцию из второй {@code div.sc-beqWaB.bpXRKw}
+ * и описание из {@code div.sc-beqWaB.fmCCHr} с текстом, нормализованным как {@code text()}.
+ */
+class StreamingJobPageExtractorTest {
+
+    private static final String URL = "https://jobs.techstars.com/companies/acme/jobs/1";
+
+    private final StreamingJobPageExtractor streaming = new StreamingJobPageExtractor();
+    private final DomJobPageExtractor dom = new DomJobPageExtractor();
+
+    @Test
+    void plainPage() {
+        JobPageDetails details = assertSame(page("Engineering", "<p>Build things.</p>"));
+        assertEquals(new JobPageDetails("Engineering", "Build things."), details);
+    }
+
+    @Test
+    void commentsAreSkipped() {
+        String description = "<!-- <div class=\"sc-beqWaB fmCCHr\">не то</div> --><p>До<!-- </div> -->после</p>";
+        String html = "<!-- <div class=\"sc-beqWaB bpXRKw\">фальшивый блок</div> -->" + page("Sales", description);
+        JobPageDetails details = assertSame(html);
+        assertEquals(new JobPageDetails("Sales", "Допосле"), details);
+    }
+
+    @Test
+    void scriptAndStyleAreSkipped() {
+        String description = "<script>var s = '<div class=\"sc-beqWaB bpXRKw\"></div></div>';</script>"
+                + "<style>.fmCCHr > div { color: red }</style><p>Текст</p>";
+        String html = "<head><script>document.write('<div class=\"sc-beqWaB bpXRKw\">x</div>')</script></head>"
+                + page("Design", description);
+        JobPageDetails details = assertSame(html);
+        assertEquals(new JobPageDetails("Design", "Текст"), details);
+    }
+
+    @Test
+    void nestedDivsEndAtTheMatchingClose() {
+        String description = "<div><div>Первый</div><div>Второй <div>глубже</div></div></div>хвост";
+        JobPageDetails details = assertSame(page("Operations", description) + "<div>после блока</div>");
+        assertEquals(new JobPageDetails("Operations", "Первый Второй глубже хвост"), details);
+    }
+
+    @Test
+    void entities() {
+        String description = "R&amp;D &lt;team&gt; &quot;core&quot; it&#39;s &#x41;&#66; a&nbsp;b caf&eacute; &copy;";
+        JobPageDetails details = assertSame(page("Research &amp; Development", description));
+        assertEquals(new JobPageDetails("Research & Development", "R&D <team> \"core\" it's AB a b café ©"), details);
+    }
+
+    @Test
+    void lineBreaksBecomeSpaces() {
+        JobPageDetails details = assertSame(page("Legal", "Первая<br>вторая<br/>третья<BR />\n\n  четвёртая"));
+        assertEquals(new JobPageDetails("Legal", "Первая вторая третья четвёртая"), details);
+    }
+
+    @Test
+    void multiByteUtf8() {
+        String description = "<p>Разработка 🚀 开发 — naïve</p>";
+        JobPageDetails details = assertSame(page("Программирование", description));
+        assertEquals(new JobPageDetails("Программирование", "Разработка 🚀 开发 — naïve"), details);
+    }
+
+    @Test
+    void emptyDescriptionIsNull() {
+        JobPageDetails details = assertSame(page("Finance", "  <p> </p> "));
+        assertEquals(new JobPageDetails("Finance", null), details);
+    }
+
+    /** Без второго блока функции потоковый сканер отказывается, и JobPageFetcher переходит на DOM. */
+    @Test
+    void missingSecondLaborBlockFallsBackToDom() {
+        String html = "<div class=\"sc-beqWaB bpXRKw\">Acme</div>"
+                + "<div class=\"sc-beqWaB fmCCHr\"><p>Описание</p></div>";
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        assertNull(streaming.extract(bytes, URL));
+        assertEquals(new JobPageDetails(null, "Описание"), dom.extract(bytes, URL));
+    }
+
+    private JobPageDetails assertSame(String html) {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        JobPageDetails expected = dom.extract(bytes, URL);
+        assertEquals(expected, streaming.extract(bytes, URL));
+        return expected;
+    }
+
+    /** Разметка страницы вакансии: первая bpXRKw - компания, вторая - функция, затем описание. */
+    private static String page(String laborFunction, String description) {
+        return "<!DOCTYPE html><html><body><div id=\"__next\">"
+                + "<div class=\"sc-beqWaB bpXRKw\">Acme Inc</div>"
+                + "<div class=\"sc-beqWaB bpXRKw\">" + laborFunction + "</div>"
+                + "<div class=\"sc-beqWaB fmCCHr\">" + description + "</div>"
+                + "</div></body></html>";
+    }
+}